@@ -0,0 +1,33 @@
+package com.dreamsecurity.sapmock.authorization;
+
+/**
+ * 일괄 CheckAuthorization 요청의 한 건: 직원이 (object, field=value) 권한을 가졌는지.
+ */
+public class AuthorizationCheck {
+
+    private String employeeId;
+    private String object;
+    private String field;
+    private String value;
+
+    public AuthorizationCheck() {}
+
+    public AuthorizationCheck(String employeeId, String object, String field, String value) {
+        this.employeeId = employeeId;
+        this.object = object;
+        this.field = field;
+        this.value = value;
+    }
+
+    public String getEmployeeId() { return employeeId; }
+    public void setEmployeeId(String employeeId) { this.employeeId = employeeId; }
+
+    public String getObject() { return object; }
+    public void setObject(String object) { this.object = object; }
+
+    public String getField() { return field; }
+    public void setField(String field) { this.field = field; }
+
+    public String getValue() { return value; }
+    public void setValue(String value) { this.value = value; }
+}
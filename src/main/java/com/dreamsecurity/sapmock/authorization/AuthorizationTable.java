@@ -0,0 +1,125 @@
+package com.dreamsecurity.sapmock.authorization;
+
+import com.dreamsecurity.sapmock.model.Employee;
+import com.dreamsecurity.sapmock.model.Privilege;
+import com.dreamsecurity.sapmock.model.Role;
+import com.dreamsecurity.sapmock.store.EmployeeStore;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * 역할별, 직원별 유효 권한을 long[] 비트셋으로 미리 계산한 표. 불변이며, 역할이나 직원이 바뀌면 통째로 다시 만든다.
+ *
+ * 직원 표는 저장소 순번으로 찾으며, 같은 역할 조합을 가진 직원들은 같은 비트셋 배열을 공유한다.
+ * 직원 표가 없으면(jpa, virtual 엔진) 직원의 역할 비트셋을 OR 해서 계산한다.
+ */
+public final class AuthorizationTable {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final PrivilegeCatalog catalog;
+    private final Map<String, long[]> roleBits;
+    private final EmployeeStore store;
+    private final long[][] employeeBits;
+
+    private AuthorizationTable(PrivilegeCatalog catalog, Map<String, long[]> roleBits,
+                               EmployeeStore store, long[][] employeeBits) {
+        this.catalog = catalog;
+        this.roleBits = roleBits;
+        this.store = store;
+        this.employeeBits = employeeBits;
+    }
+
+    /**
+     * @param store 직원 표를 미리 만들 저장소. null 이면 역할 비트셋만 만든다.
+     */
+    public static AuthorizationTable build(Collection<Role> roles, EmployeeStore store) {
+        PrivilegeCatalog catalog = PrivilegeCatalog.build(roles);
+        int words = (catalog.size() + 63) >>> 6;
+
+        Map<String, long[]> roleBits = new HashMap<>();
+        for (Role role : roles) {
+            long[] bits = new long[words];
+            for (Privilege privilege : role.getPrivileges()) {
+                int id = catalog.idOf(privilege);
+                if (id >= 0) {
+                    bits[id >>> 6] |= 1L << id;
+                }
+            }
+            roleBits.put(role.getRoleId(), bits);
+        }
+
+        if (store == null) {
+            return new AuthorizationTable(catalog, roleBits, null, null);
+        }
+        long[][] employeeBits = new long[store.size()][];
+        Map<String, long[]> byRoleSet = new HashMap<>();
+        for (int ordinal = 0; ordinal < employeeBits.length; ordinal++) {
+            Collection<Role> employeeRoles = store.roles(ordinal);
+            TreeSet<String> roleIds = new TreeSet<>();
+            for (Role role : employeeRoles) {
+                roleIds.add(role.getRoleId());
+            }
+            employeeBits[ordinal] = byRoleSet.computeIfAbsent(String.join(",", roleIds),
+                    key -> union(roleBits, roleIds, words));
+        }
+        return new AuthorizationTable(catalog, roleBits, store, employeeBits);
+    }
+
+    private static long[] union(Map<String, long[]> roleBits, Collection<String> roleIds, int words) {
+        long[] bits = new long[words];
+        for (String roleId : roleIds) {
+            long[] granted = roleBits.get(roleId);
+            if (granted != null) {
+                for (int i = 0; i < words; i++) {
+                    bits[i] |= granted[i];
+                }
+            }
+        }
+        return bits;
+    }
+
+    public PrivilegeCatalog catalog() {
+        return catalog;
+    }
+
+    /** 직원 표가 이 저장소에 대해 만들어졌는지 */
+    public boolean covers(EmployeeStore store) {
+        return store != null && this.store == store;
+    }
+
+    /** 미리 계산된 직원 비트셋. covers(store) 일 때만 쓴다 */
+    public long[] bitsOf(int ordinal) {
+        return employeeBits[ordinal];
+    }
+
+    /** 직원 표가 없을 때 직원의 역할로부터 비트셋을 계산한다 */
+    public long[] bitsOf(Employee employee) {
+        return bitsOf(employee.getRoles());
+    }
+
+    /** 역할들의 비트셋을 OR 한 비트셋 */
+    public long[] bitsOf(Collection<Role> roles) {
+        if (roles.isEmpty()) {
+            return EMPTY;
+        }
+        long[] bits = new long[(catalog.size() + 63) >>> 6];
+        for (Role role : roles) {
+            long[] granted = roleBits.get(role.getRoleId());
+            if (granted != null) {
+                for (int i = 0; i < bits.length; i++) {
+                    bits[i] |= granted[i];
+                }
+            }
+        }
+        return bits;
+    }
+
+    public static boolean has(long[] bits, int privilegeId) {
+        return privilegeId >= 0 && (privilegeId >>> 6) < bits.length
+                && (bits[privilegeId >>> 6] & (1L << privilegeId)) != 0;
+    }
+}
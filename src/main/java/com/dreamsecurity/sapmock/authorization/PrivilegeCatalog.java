@@ -0,0 +1,83 @@
+package com.dreamsecurity.sapmock.authorization;
+
+import com.dreamsecurity.sapmock.model.Privilege;
+import com.dreamsecurity.sapmock.model.Role;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 권한 (객체, 필드, 값) 마다 0 부터의 조밀한 번호를 붙인 카탈로그.
+ * privilegeName 은 "필드=값" 형식이며, 첫 번째 '=' 를 기준으로 나눈다.
+ * 조회는 객체 → 필드 → 값 순의 중첩 맵이라 "필드=값" 문자열을 새로 만들지 않는다.
+ */
+public final class PrivilegeCatalog {
+
+    private final Map<String, Map<String, Map<String, Integer>>> ids;
+    private final List<Privilege> privileges;
+
+    private PrivilegeCatalog(Map<String, Map<String, Map<String, Integer>>> ids, List<Privilege> privileges) {
+        this.ids = ids;
+        this.privileges = privileges;
+    }
+
+    public static PrivilegeCatalog build(Collection<Role> roles) {
+        Map<String, Map<String, Map<String, Integer>>> ids = new HashMap<>();
+        List<Privilege> privileges = new ArrayList<>();
+        for (Role role : roles) {
+            for (Privilege privilege : role.getPrivileges()) {
+                String name = privilege.getPrivilegeName();
+                int separator = name == null ? -1 : name.indexOf('=');
+                if (privilege.getPrivilegeId() == null || separator < 0) {
+                    // "필드=값" 형식이 아니면 어떤 검사와도 일치할 수 없다
+                    continue;
+                }
+                Map<String, Integer> values = ids
+                        .computeIfAbsent(privilege.getPrivilegeId(), k -> new HashMap<>())
+                        .computeIfAbsent(name.substring(0, separator), k -> new HashMap<>());
+                String value = name.substring(separator + 1);
+                if (!values.containsKey(value)) {
+                    values.put(value, privileges.size());
+                    privileges.add(privilege);
+                }
+            }
+        }
+        return new PrivilegeCatalog(ids, Collections.unmodifiableList(privileges));
+    }
+
+    public int size() {
+        return privileges.size();
+    }
+
+    /** 권한 번호. 카탈로그에 없는 권한이면 -1 */
+    public int idOf(String object, String field, String value) {
+        Map<String, Map<String, Integer>> fields = ids.get(object);
+        if (fields == null) {
+            return -1;
+        }
+        Map<String, Integer> values = fields.get(field);
+        if (values == null) {
+            return -1;
+        }
+        Integer id = values.get(value);
+        return id == null ? -1 : id;
+    }
+
+    /** privilegeName 이 "필드=값" 형식이 아니면 -1 */
+    public int idOf(Privilege privilege) {
+        String name = privilege.getPrivilegeName();
+        int separator = name == null ? -1 : name.indexOf('=');
+        if (separator < 0) {
+            return -1;
+        }
+        return idOf(privilege.getPrivilegeId(), name.substring(0, separator), name.substring(separator + 1));
+    }
+
+    public Privilege privilege(int id) {
+        return privileges.get(id);
+    }
+}
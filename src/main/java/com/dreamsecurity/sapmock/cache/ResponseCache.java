@@ -0,0 +1,161 @@
+package com.dreamsecurity.sapmock.cache;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 직렬화가 끝난 응답 본문(UTF-8 바이트)을 키별로 보관하는 캐시.
+ * 항목 수가 아니라 보관한 바이트 합계로 크기를 제한하고, 넘치면 가장 오래 사용되지 않은 항목부터 제거한다.
+ * maxEntryBytes 보다 큰 응답은 보관하지 않는다. 적중/실패/제거 횟수를 센다.
+ */
+public class ResponseCache {
+
+    /** 항목마다 본문 외에 드는 대략적인 바이트 (맵 항목, 배열 헤더) */
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private final long maxBytes;
+    private final int maxEntryBytes;
+    private final LinkedHashMap<String, byte[]> map = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param maxBytes      보관할 바이트 합계의 상한. 0 이하이면 아무것도 보관하지 않는다
+     * @param maxEntryBytes 응답 하나의 상한
+     */
+    public ResponseCache(long maxBytes, int maxEntryBytes) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+    }
+
+    public boolean isEnabled() {
+        return maxBytes > 0 && maxEntryBytes > 0;
+    }
+
+    /** 보관한 본문. 없으면 null. 돌려준 배열은 수정하면 안 된다 */
+    public synchronized byte[] get(String key) {
+        byte[] value = map.get(key);
+        if (value == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return value;
+    }
+
+    public synchronized void put(String key, byte[] value) {
+        long weight = weight(key, value);
+        if (value.length > maxEntryBytes || weight > maxBytes) {
+            return;
+        }
+        byte[] previous = map.put(key, value);
+        if (previous != null) {
+            bytes -= weight(key, previous);
+        }
+        bytes += weight;
+        // 방금 넣은 항목은 맨 뒤에 있으므로 앞에서부터 지우면 그보다 오래된 항목만 지워진다
+        Iterator<Map.Entry<String, byte[]>> eldest = map.entrySet().iterator();
+        while (bytes > maxBytes) {
+            Map.Entry<String, byte[]> entry = eldest.next();
+            bytes -= weight(entry.getKey(), entry.getValue());
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private static long weight(String key, byte[] value) {
+        return value.length + 2L * key.length() + ENTRY_OVERHEAD;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, map.size(), bytes, maxBytes);
+    }
+
+    /**
+     * out 에 쓰는 내용을 그대로 넘기면서 maxEntryBytes 까지 복사해 두는 스트림.
+     * 다 쓴 뒤 bytes() 를 put 에 넘긴다.
+     */
+    public Recorder record(OutputStream out) {
+        return new Recorder(out, maxEntryBytes);
+    }
+
+    public static final class Recorder extends FilterOutputStream {
+
+        private final int limit;
+        private byte[] buffer = new byte[8192];
+        private int count;
+        private boolean overflowed;
+
+        private Recorder(OutputStream out, int limit) {
+            super(out);
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            copy(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            copy(b, off, len);
+        }
+
+        private void copy(byte[] b, int off, int len) {
+            if (overflowed) {
+                return;
+            }
+            if (count + len > limit) {
+                overflowed = true;
+                buffer = null;
+                return;
+            }
+            if (count + len > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.min(limit, Math.max(buffer.length * 2, count + len)));
+            }
+            System.arraycopy(b, off, buffer, count, len);
+            count += len;
+        }
+
+        /** 쓴 내용 전체. maxEntryBytes 를 넘었으면 null */
+        public byte[] bytes() {
+            return overflowed ? null : Arrays.copyOf(buffer, count);
+        }
+    }
+
+    /** 캐시 상태 (GET /sap/mock/response-cache 응답) */
+    public static final class Stats {
+
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final int entries;
+        private final long bytes;
+        private final long maxBytes;
+
+        Stats(long hits, long misses, long evictions, int entries, long bytes, long maxBytes) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.entries = entries;
+            this.bytes = bytes;
+            this.maxBytes = maxBytes;
+        }
+
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public int getEntries() { return entries; }
+        public long getBytes() { return bytes; }
+        public long getMaxBytes() { return maxBytes; }
+    }
+}
@@ -1,7 +1,10 @@
 package com.dreamsecurity.sapmock.component;
 
-import com.dreamsecurity.sapmock.service.EmployeeGenerationService;
+import com.dreamsecurity.sapmock.service.EmployeeDatasetService;
+import com.dreamsecurity.sapmock.service.GenerationJob;
+import com.dreamsecurity.sapmock.service.GenerationJobService;
 import com.dreamsecurity.sapmock.service.EmployeeQueryService;
+import com.dreamsecurity.sapmock.store.StoreEngine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -14,26 +17,40 @@ public class StartupEmployeeGenerator implements ApplicationRunner {
 
     private static final Logger log = LoggerFactory.getLogger(StartupEmployeeGenerator.class);
 
-    private final EmployeeGenerationService employeeGenerationServiceService;
+    private final GenerationJobService generationJobService;
     private final EmployeeQueryService employeeQueryService;
+    private final EmployeeDatasetService employeeDatasetService;
 
     @Value("${sap.gen.count:50}") // 기본값 50
     private int defaultCount;
 
-    public StartupEmployeeGenerator(EmployeeGenerationService employeeGenerationServiceService, EmployeeQueryService employeeQueryService) {
-        this.employeeGenerationServiceService = employeeGenerationServiceService;
+    public StartupEmployeeGenerator(GenerationJobService generationJobService, EmployeeQueryService employeeQueryService,
+                                    EmployeeDatasetService employeeDatasetService) {
+        this.generationJobService = generationJobService;
         this.employeeQueryService = employeeQueryService;
+        this.employeeDatasetService = employeeDatasetService;
     }
 
     @Override
     public void run(ApplicationArguments args) throws Exception {
+        if (employeeDatasetService.engine() == StoreEngine.VIRTUAL) {
+            log.info("가상 데이터셋 모드이므로 직원 생성 생략");
+            employeeDatasetService.reload();
+            return;
+        }
+
+        if (employeeDatasetService.loadSnapshotFile()) {
+            log.info("스냅샷 파일로 데이터셋을 적재했으므로 직원 생성 생략");
+            return;
+        }
+
         if (employeeQueryService.hasEnoughEmployees(defaultCount)) {
             log.info("기존에 직원이 {}명 이상 존재하므로 생성 생략", defaultCount);
+            employeeDatasetService.reload();
             return;
         }
 
-        log.info("SAP Mock 서버 기동 후 직원 {}명 생성 시작", defaultCount);
-        employeeGenerationServiceService.generateEmployees(defaultCount);
-        log.info("초기 직원 데이터 생성 완료!");
+        GenerationJob job = generationJobService.submit(defaultCount, null);
+        log.info("SAP Mock 서버 기동 후 직원 {}명 생성 작업 시작 (jobId={})", defaultCount, job.getJobId());
     }
 }
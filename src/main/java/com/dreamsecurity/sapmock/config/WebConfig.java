@@ -0,0 +1,28 @@
+package com.dreamsecurity.sapmock.config;
+
+import com.dreamsecurity.sapmock.service.EmployeeDatasetService;
+import com.dreamsecurity.sapmock.web.DatasetETagInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private static final String ODATA_SERVICE = "/sap/opu/odata/sap/EMPLOYEE_BASIC_SRV";
+
+    private final EmployeeDatasetService datasetService;
+
+    @Autowired
+    public WebConfig(EmployeeDatasetService datasetService) {
+        this.datasetService = datasetService;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // 직원 데이터로만 결정되는 조회 (Roles, Privileges, CheckAuthorization 포함)
+        registry.addInterceptor(new DatasetETagInterceptor(datasetService))
+                .addPathPatterns(ODATA_SERVICE + "/Employees", ODATA_SERVICE + "/Employees/**");
+    }
+}
@@ -1,22 +1,51 @@
 package com.dreamsecurity.sapmock.controller;
 
+import com.dreamsecurity.sapmock.authorization.AuthorizationCheck;
+import com.dreamsecurity.sapmock.cache.ResponseCache;
+import com.dreamsecurity.sapmock.export.CsvExporter;
+import com.dreamsecurity.sapmock.filter.CompiledFilter;
+import com.dreamsecurity.sapmock.filter.EmployeeField;
+import com.dreamsecurity.sapmock.filter.FilterSyntaxException;
 import com.dreamsecurity.sapmock.model.Employee;
 import com.dreamsecurity.sapmock.model.Privilege;
 import com.dreamsecurity.sapmock.model.Role;
-import com.dreamsecurity.sapmock.service.EmployeeGenerationService;
+import com.dreamsecurity.sapmock.odata.EmployeeEntryWriter;
+import com.dreamsecurity.sapmock.odata.ExpandOption;
+import com.dreamsecurity.sapmock.odata.InvalidQueryOptionException;
+import com.dreamsecurity.sapmock.odata.ODataJsonWriter;
+import com.dreamsecurity.sapmock.odata.ODataLinks;
+import com.dreamsecurity.sapmock.odata.OrderByOption;
+import com.dreamsecurity.sapmock.odata.SelectOption;
+import com.dreamsecurity.sapmock.odata.SkipToken;
+import com.dreamsecurity.sapmock.service.AuthorizationService;
+import com.dreamsecurity.sapmock.service.DatasetSnapshot;
+import com.dreamsecurity.sapmock.service.EmployeeDatasetService;
+import com.dreamsecurity.sapmock.sort.EmployeeOrder;
+import com.dreamsecurity.sapmock.service.GenerationJob;
+import com.dreamsecurity.sapmock.service.GenerationJobService;
 import com.dreamsecurity.sapmock.service.EmployeeQueryService;
 import com.dreamsecurity.sapmock.service.EmployeeFilterUtil;
+import com.dreamsecurity.sapmock.service.SnapshotFileInfo;
+import com.dreamsecurity.sapmock.web.DatasetETagInterceptor;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/sap/opu/odata/sap/EMPLOYEE_BASIC_SRV")
@@ -24,120 +53,436 @@ public class SapController {
 
     private static final Logger log = LoggerFactory.getLogger(SapController.class);
 
-    private final EmployeeGenerationService generationService;
+    private final GenerationJobService generationJobService;
     private final EmployeeQueryService queryService;
+    private final EmployeeDatasetService datasetService;
     private final EmployeeFilterUtil filterUtil;
-    private final RestTemplate restTemplate;
+    private final AuthorizationService authorizationService;
+    private final ObjectMapper objectMapper;
+    private final CsvExporter csvExporter;
+    private final ResponseCache responseCache;
+
+    @Value("${sap.authorization.bulk-max-checks:100000}")
+    private int bulkMaxChecks;
+
+    @Value("${sap.odata.default-page-size:10}")
+    private int defaultPageSize;
+
+    @Value("${sap.odata.max-page-size:5000}")
+    private int maxPageSize;
+
+    /** $expand 시 역할을 한 번에 읽는 직원 수 */
+    private static final int EXPAND_BATCH_SIZE = 1000;
+    /** 일괄 권한 확인에서 한 번에 판정해 쓰는 건수 */
+    private static final int CHECK_BATCH_SIZE = 1000;
 
     @Autowired
-    public SapController(EmployeeGenerationService generationService,
+    public SapController(GenerationJobService generationJobService,
                               EmployeeQueryService queryService,
+                              EmployeeDatasetService datasetService,
                               EmployeeFilterUtil filterUtil,
-                              RestTemplate restTemplate) {
-        this.generationService = generationService;
+                              AuthorizationService authorizationService,
+                              ObjectMapper objectMapper,
+                              CsvExporter csvExporter,
+                              @Value("${sap.odata.response-cache-bytes:67108864}") long responseCacheBytes,
+                              @Value("${sap.odata.response-cache-max-entry-bytes:1048576}") int responseCacheMaxEntryBytes) {
+        this.generationJobService = generationJobService;
         this.queryService = queryService;
+        this.datasetService = datasetService;
         this.filterUtil = filterUtil;
-        this.restTemplate = restTemplate;
+        this.authorizationService = authorizationService;
+        this.objectMapper = objectMapper;
+        this.csvExporter = csvExporter;
+        this.responseCache = new ResponseCache(responseCacheBytes, responseCacheMaxEntryBytes);
     }
 
     @PostMapping("/sap/mock/generate-employees")
-    public ResponseEntity<?> generateEmployees(@RequestParam int count) {
-        log.info("▶[generateEmployees] 요청: count={}", count);
-        generationService.generateEmployees(count);
-        log.info("[generateEmployees] {}명의 Mock 사용자 생성 완료", count);
+    public ResponseEntity<?> generateEmployees(@RequestParam int count,
+                                               @RequestParam(required = false) Long seed) {
+        log.info("▶[generateEmployees] 요청: count={}, seed={}", count, seed);
+        if (count < 0) {
+            throw new InvalidQueryOptionException("count 는 0 이상이어야 합니다");
+        }
+        try {
+            GenerationJob job = generationJobService.submit(count, seed);
+            log.info("[generateEmployees] 생성 작업 {} 등록", job.getJobId());
+            Map<String, Object> response = new HashMap<>();
+            response.put("d", job);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        } catch (IllegalStateException ex) {
+            Map<String, Object> error = new HashMap<>();
+            Map<String, String> detail = new HashMap<>();
+            detail.put("code", "Conflict");
+            detail.put("message", ex.getMessage());
+            error.put("error", detail);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        }
+    }
+
+    @GetMapping("/sap/mock/generate-employees/jobs")
+    public Map<String, Object> getGenerationJobs() {
         Map<String, Object> response = new HashMap<>();
         Map<String, Object> d = new HashMap<>();
-        d.put("results", "success");
+        d.put("results", generationJobService.findAll());
         response.put("d", d);
+        return response;
+    }
+
+    @GetMapping("/sap/mock/generate-employees/jobs/{jobId}")
+    public ResponseEntity<?> getGenerationJob(@PathVariable String jobId) {
+        return generationJobService.find(jobId)
+                .map(this::jobResponse)
+                .orElseGet(this::jobNotFound);
+    }
+
+    @PostMapping("/sap/mock/generate-employees/jobs/{jobId}/cancel")
+    public ResponseEntity<?> cancelGenerationJob(@PathVariable String jobId) {
+        log.info("▶[cancelGenerationJob] 요청: jobId={}", jobId);
+        return generationJobService.cancel(jobId)
+                .map(this::jobResponse)
+                .orElseGet(this::jobNotFound);
+    }
+
+    /**
+     * 현재 데이터셋(직원, 역할, 권한, 배정)을 바이너리 스냅샷 파일로 저장한다 (sap.snapshot.path).
+     * 다음 기동부터는 DB 대신 이 파일을 매핑해서 바로 뜬다.
+     */
+    @PostMapping("/sap/mock/snapshot")
+    public ResponseEntity<?> saveSnapshot() {
+        log.info("▶[saveSnapshot] 요청");
+        try {
+            SnapshotFileInfo info = datasetService.saveSnapshotFile();
+            Map<String, Object> response = new HashMap<>();
+            response.put("d", info);
+            return ResponseEntity.ok(response);
+        } catch (IllegalStateException ex) {
+            return snapshotError(HttpStatus.CONFLICT, "Conflict", ex.getMessage());
+        } catch (IOException ex) {
+            log.error("[saveSnapshot] 스냅샷 파일 저장 실패", ex);
+            return snapshotError(HttpStatus.INTERNAL_SERVER_ERROR, "InternalServerError",
+                    "스냅샷 파일 저장 실패: " + ex.getMessage());
+        }
+    }
+
+    private ResponseEntity<?> snapshotError(HttpStatus status, String code, String message) {
+        Map<String, Object> error = new HashMap<>();
+        Map<String, String> detail = new HashMap<>();
+        detail.put("code", code);
+        detail.put("message", message);
+        error.put("error", detail);
+        return ResponseEntity.status(status).body(error);
+    }
+
+    /**
+     * $filter 에 맞는 직원 전체를 employeeId 순 CSV 로 내려받는다. $select 가 있으면 해당 컬럼만 쓴다.
+     * jpa 엔진은 DB 커서에서, 메모리 엔진은 저장소에서 한 행씩 읽어 바로 CSV 로 쓰므로 건수와 관계없이 메모리 사용량이 일정하다.
+     * gzip=true 이면 압축하면서 보낸다 (employees.csv.gz).
+     */
+    @GetMapping("/sap/mock/export-employees")
+    public ResponseEntity<StreamingResponseBody> exportEmployees(
+            @RequestParam(name = "$filter", required = false) String filter,
+            @RequestParam(name = "$select", required = false) String select,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletRequest request) {
+        log.info("▶[exportEmployees] 요청: filter={}, select={}, gzip={}", filter, select, gzip);
+        CompiledFilter compiled = filterUtil.compile(filter);
+        DatasetSnapshot snapshot = snapshotOf(request);
+        SelectOption selection = SelectOption.parse(select);
+        List<EmployeeField> fields = selection.fields();
+
+        StreamingResponseBody body = out -> {
+            long start = System.currentTimeMillis();
+            OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024, true) : out;
+            long rows = csvExporter.exportRows(target, fields, action -> queryService.forEachRowInPage(
+                    snapshot, compiled, EmployeeOrder.NATURAL, null, 0, Integer.MAX_VALUE, fields, action));
+            if (gzip) {
+                ((GZIPOutputStream) target).finish();
+            }
+            log.info("[exportEmployees] 결과: {}행 ({}ms)", rows, System.currentTimeMillis() - start);
+        };
+        String fileName = gzip ? "employees.csv.gz" : "employees.csv";
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType("text/csv; charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
+    private ResponseEntity<?> jobResponse(GenerationJob job) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("d", job);
         return ResponseEntity.ok(response);
     }
 
+    private ResponseEntity<?> jobNotFound() {
+        Map<String, Object> error = new HashMap<>();
+        Map<String, String> detail = new HashMap<>();
+        detail.put("code", "NotFound");
+        detail.put("message", "Generation job not found");
+        error.put("error", detail);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
+    /**
+     * 직원 목록. $top 을 생략하면 default-page-size 건, max-page-size 보다 크면 max-page-size 건씩 나눠 보내고
+     * 남은 결과는 $skiptoken 이 담긴 __next 링크로 이어서 받는다 (서버 페이징).
+     * $select 가 있으면 해당 컬럼만 읽어 해당 속성만 내보낸다.
+     * $orderby 가 없으면 employeeId 순이며, 정렬 키가 같으면 항상 employeeId 순으로 이어진다.
+     * $inlinecount=allpages 이면 $skip/$top 과 관계없는 전체 건수를 __count 로 함께 보낸다.
+     * 역할(roles)은 $expand=Roles 또는 Roles/Privileges 일 때만 펼치며, 페이지의 역할을 묶음 단위로 한 번에 읽는다.
+     * 펼치지 않으면 $select 없이 읽을 때 __deferred 링크로만 보낸다.
+     * $skip/$top 없이 끝까지 읽으면 마지막 페이지에 __delta 링크를 붙이고, 그 $deltatoken 으로 요청하면
+     * 그 뒤에 추가/변경된 직원과 삭제된 직원("__deleted": true)만 보낸다.
+     * 델타가 아닌 응답은 (데이터셋 버전, 쿼리 옵션) 별로 본문 바이트를 캐시해 두고, 같은 요청이 오면 다시 읽지 않고 그대로 보낸다.
+     */
     @GetMapping("/Employees")
-    public Map<String, Object> getEmployees(
+    public ResponseEntity<StreamingResponseBody> getEmployees(
             @RequestParam(name = "$skip", defaultValue = "0") int skip,
-            @RequestParam(name = "$top", defaultValue = "10") int top,
+            @RequestParam(name = "$top", required = false) Integer top,
             @RequestParam(name = "$filter", required = false) String filter,
+            @RequestParam(name = "$skiptoken", required = false) String skipToken,
+            @RequestParam(name = "$select", required = false) String select,
+            @RequestParam(name = "$orderby", required = false) String orderBy,
+            @RequestParam(name = "$inlinecount", required = false) String inlineCount,
+            @RequestParam(name = "$deltatoken", required = false) String deltaToken,
+            @RequestParam(name = "$expand", required = false) String expand,
             HttpServletRequest request) {
 
         String clientIp = getClientIp(request);
-        log.info("▶[getEmployees] 요청: skip={}, top={}, filter={}, from IP={}", skip, top, filter, clientIp);
+        log.info("▶[getEmployees] 요청: skip={}, top={}, filter={}, select={}, expand={}, orderby={}, inlinecount={}, skiptoken={}, deltatoken={}, from IP={}",
+                skip, top, filter, select, expand, orderBy, inlineCount, skipToken, deltaToken, clientIp);
 
-        List<Employee> all = queryService.findAll();
-
-        if (filter != null && !filter.isBlank()) {
-            all = applyFilter(all, filter);
+        if (skip < 0 || (top != null && top < 0)) {
+            throw new InvalidQueryOptionException("$skip, $top 은 0 이상이어야 합니다");
+        }
+        // 잘못된 $filter 는 응답을 쓰기 전에 400 으로 끝나도록 먼저 컴파일한다
+        CompiledFilter compiled = filterUtil.compile(filter);
+        SelectOption selection = SelectOption.parse(select);
+        ExpandOption expansion = ExpandOption.parse(expand);
+        DatasetSnapshot snapshot = snapshotOf(request);
+        if (deltaToken != null) {
+            if (skip != 0 || top != null || skipToken != null || orderBy != null || inlineCount != null) {
+                throw new InvalidQueryOptionException("$deltatoken 은 $filter, $select, $expand 와만 함께 쓸 수 있습니다");
+            }
+            return getEmployeeChanges(snapshot, deltaToken, compiled, selection, expansion, request);
         }
+        EmployeeOrder order = OrderByOption.parse(orderBy);
+        if (!queryService.supportsOrder(snapshot, order)) {
+            throw new InvalidQueryOptionException("현재 저장소 엔진은 $orderby 를 employeeId 로만 지원합니다");
+        }
+        SkipToken token = skipToken == null ? null : SkipToken.decode(skipToken);
+        if (token != null && !token.matches(filter, orderBy)) {
+            throw new InvalidQueryOptionException("$skiptoken 이 현재 $filter, $orderby 로 만든 것이 아닙니다");
+        }
+        if (inlineCount != null && !inlineCount.equals("allpages") && !inlineCount.equals("none")) {
+            throw new InvalidQueryOptionException("$inlinecount 는 allpages 또는 none 이어야 합니다");
+        }
+        String cacheKey = responseCache.isEnabled() ? responseCacheKey(snapshot, request, skip, top) : null;
+        byte[] cached = cacheKey == null ? null : responseCache.get(cacheKey);
+        if (cached != null) {
+            log.info("[getEmployees] 결과: 캐시된 응답 {} bytes 반환", cached.length);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).contentLength(cached.length)
+                    .body(out -> out.write(cached));
+        }
+        Long total = "allpages".equals(inlineCount) ? queryService.count(snapshot, compiled) : null;
+
+        int pageSize = top == null ? defaultPageSize : Math.min(top, maxPageSize);
+        boolean serverPaging = top == null || top > pageSize;
+        // 다음 페이지가 있는지 알기 위해 한 건 더 읽는다
+        int fetch = serverPaging ? pageSize + 1 : pageSize;
+        Object[] after = token == null ? null : token.cursor(order);
+        // 첫 페이지를 읽기 전의 변경 기록 번호. 읽는 도중 바뀐 직원은 다음 델타에 다시 나온다
+        long sequence = token == null ? queryService.deltaSequence(snapshot) : token.sequence();
+        boolean fullRead = top == null && skip == 0;
 
-        List<Employee> results = all.stream().skip(skip).limit(top).collect(Collectors.toList());
-        log.info("[getEmployees] 결과: {}명의 직원 반환", results.size());
+        List<EmployeeField> columns = selection.columns(order.fields());
+        int[] keyColumns = order.fields().stream().mapToInt(columns::indexOf).toArray();
+        String serviceRoot = ODataLinks.serviceRoot(request);
 
+        StreamingResponseBody body = target -> {
+            ResponseCache.Recorder recorder = cacheKey == null ? null : responseCache.record(target);
+            OutputStream out = recorder == null ? target : recorder;
+            try (ODataJsonWriter writer = new ODataJsonWriter(objectMapper, out)) {
+                EmployeeEntryWriter entries = new EmployeeEntryWriter(writer, selection.fields(),
+                        columns.indexOf(EmployeeField.EMPLOYEE_ID), expansion, selection.isAll(), serviceRoot,
+                        ids -> queryService.findRoles(snapshot, ids), EXPAND_BATCH_SIZE);
+                Object[][] lastCursor = new Object[1][];
+                int[] accepted = new int[1];
+                writer.startResults(total);
+                int read = queryService.forEachRowInPage(snapshot, compiled, order, after, skip, fetch, columns, row -> {
+                    if (accepted[0]++ < pageSize) {
+                        entries.write(row);
+                        Object[] cursor = new Object[keyColumns.length];
+                        for (int i = 0; i < cursor.length; i++) {
+                            cursor[i] = row[keyColumns[i]];
+                        }
+                        lastCursor[0] = cursor;
+                    }
+                });
+                entries.flush();
+                String next = null;
+                if (read > pageSize) {
+                    next = ODataLinks.next(request, new SkipToken(filter, orderBy, sequence, lastCursor[0]).encode(),
+                            top == null ? null : top - pageSize);
+                }
+                String delta = next == null && fullRead ? ODataLinks.delta(request, String.valueOf(sequence)) : null;
+                writer.endResults(next, delta);
+                log.info("[getEmployees] 결과: {}명의 직원 반환{}", writer.written(), next == null ? "" : " (다음 페이지 있음)");
+            }
+            byte[] written = recorder == null ? null : recorder.bytes();
+            if (written != null) {
+                responseCache.put(cacheKey, written);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * 응답 캐시 키: 데이터셋 버전, 요청 URL, 해석한 $skip/$top, 나머지 쿼리 옵션(요청 순서).
+     * __next, __delta 링크가 요청 URL 과 옵션 순서를 그대로 따르므로 이 값이 같으면 응답 본문도 같다.
+     */
+    private static String responseCacheKey(DatasetSnapshot snapshot, HttpServletRequest request, int skip, Integer top) {
+        StringBuilder key = new StringBuilder()
+                .append(snapshot.version()).append('\n')
+                .append(request.getRequestURL()).append('\n')
+                .append(skip).append('\n')
+                .append(top);
+        for (Map.Entry<String, String[]> param : request.getParameterMap().entrySet()) {
+            if (param.getKey().equals("$skip") || param.getKey().equals("$top")) {
+                continue;
+            }
+            for (String value : param.getValue()) {
+                // 값 안의 구분자와 헷갈리지 않도록 길이를 앞에 붙인다
+                key.append('\n').append(param.getKey()).append('=').append(value.length()).append(':').append(value);
+            }
+        }
+        return key.toString();
+    }
+
+    /** /Employees 응답 캐시의 적중/실패/제거 횟수와 사용량 */
+    @GetMapping("/sap/mock/response-cache")
+    public ResponseEntity<?> getResponseCacheStats() {
         Map<String, Object> response = new HashMap<>();
-        Map<String, Object> d = new HashMap<>();
-        d.put("results", results);
-        response.put("d", d);
-        return response;
+        response.put("d", responseCache.stats());
+        return ResponseEntity.ok(response);
     }
 
-/*    @GetMapping("/Employees/{employeeId}")
-    public ResponseEntity<?> getEmployeeDetail(@PathVariable String employeeId) {
-        log.info("[getEmployeeDetail] 요청: employeeId={}", employeeId);
-        return queryService.findById(employeeId)
-                .map(emp -> {
-                    log.info("[getEmployeeDetail] 결과: {}", emp);
-                    return ResponseEntity.ok(emp);
-                })
-                .orElseGet(() -> {
-                    log.warn("[getEmployeeDetail] 결과: 직원 없음");
-                    return ResponseEntity.notFound().build();
+    /**
+     * $deltatoken 이후의 변경분. 바뀐 직원 중 지금 $filter 에 맞는 직원은 레코드로, 삭제되었거나 $filter 에서 벗어난 직원은
+     * 삭제 표시로 보낸다. 변경 건수만큼만 읽으며, 다음 동기화용 __delta 링크를 붙인다.
+     */
+    private ResponseEntity<StreamingResponseBody> getEmployeeChanges(DatasetSnapshot snapshot, String deltaToken,
+                                                                     CompiledFilter compiled,
+                                                                     SelectOption selection, ExpandOption expansion,
+                                                                     HttpServletRequest request) {
+        long since;
+        try {
+            since = Long.parseLong(deltaToken);
+        } catch (NumberFormatException ex) {
+            throw new InvalidQueryOptionException("잘못된 $deltatoken 입니다: " + deltaToken);
+        }
+        long upTo = queryService.deltaSequence(snapshot);
+        if (since < 0 || since > upTo) {
+            throw new InvalidQueryOptionException("알 수 없는 $deltatoken 입니다: " + deltaToken);
+        }
+
+        List<EmployeeField> columns = selection.columns(List.of(EmployeeField.EMPLOYEE_ID));
+        String serviceRoot = ODataLinks.serviceRoot(request);
+
+        StreamingResponseBody body = out -> {
+            try (ODataJsonWriter writer = new ODataJsonWriter(objectMapper, out)) {
+                EmployeeEntryWriter entries = new EmployeeEntryWriter(writer, selection.fields(),
+                        columns.indexOf(EmployeeField.EMPLOYEE_ID), expansion, selection.isAll(), serviceRoot,
+                        ids -> queryService.findRoles(snapshot, ids), EXPAND_BATCH_SIZE);
+                int[] deleted = new int[1];
+                writer.startResults();
+                queryService.forEachChange(snapshot, since, upTo, compiled, new EmployeeQueryService.DeltaVisitor() {
+                    @Override
+                    public void changed(Employee employee) {
+                        entries.write(columns.stream().map(field -> field.get(employee)).toArray());
+                    }
+
+                    @Override
+                    public void deleted(String employeeId) {
+                        writer.writeDeleted(employeeId);
+                        deleted[0]++;
+                    }
                 });
-    }*/
+                entries.flush();
+                writer.endResults(null, ODataLinks.delta(request, String.valueOf(upTo)));
+                log.info("[getEmployees] 델타 결과: 변경 {}건, 삭제 {}건 (변경 기록 {} → {})",
+                        writer.written() - deleted[0], deleted[0], since, upTo);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * $filter 에 맞는 직원 수를 text/plain 으로 돌려준다. 직원 목록을 읽지 않고 인덱스 또는 COUNT 쿼리로 센다.
+     */
+    @GetMapping("/Employees/$count")
+    public ResponseEntity<String> countEmployees(@RequestParam(name = "$filter", required = false) String filter,
+                                                 HttpServletRequest request) {
+        log.info("▶[countEmployees] 요청: filter={}", filter);
+        long count = queryService.count(snapshotOf(request), filterUtil.compile(filter));
+        log.info("[countEmployees] 결과: {}", count);
+        return ResponseEntity.ok().contentType(MediaType.TEXT_PLAIN).body(String.valueOf(count));
+    }
 
+    /**
+     * 직원 한 명. $select 가 있으면 해당 속성만, $expand 가 있으면 역할(과 권한)을 펼쳐서 보낸다.
+     */
     @GetMapping("/Employees/{employeeId}")
-    public ResponseEntity<?> getEmployeeDetail(@PathVariable String employeeId) {
-        log.info("[getEmployeeDetail] 요청: employeeId={}", employeeId);
-        return queryService.findById(employeeId)
-                .map(emp -> {
-                    log.info("[getEmployeeDetail] 결과: {}", emp);
+    public ResponseEntity<?> getEmployeeDetail(@PathVariable String employeeId,
+                                               @RequestParam(name = "$select", required = false) String select,
+                                               @RequestParam(name = "$expand", required = false) String expand,
+                                               HttpServletRequest request) {
+        log.info("[getEmployeeDetail] 요청: employeeId={}, select={}, expand={}", employeeId, select, expand);
+        SelectOption selection = SelectOption.parse(select);
+        ExpandOption expansion = ExpandOption.parse(expand);
+        DatasetSnapshot snapshot = snapshotOf(request);
+        return queryService.findRowById(snapshot, employeeId, selection.fields())
+                .map(row -> {
+                    Map<String, Object> entry = new LinkedHashMap<>();
+                    for (int i = 0; i < selection.fields().size(); i++) {
+                        entry.put(selection.fields().get(i).property(), row[i]);
+                    }
+                    if (selection.isAll() || expansion.isExpanded()) {
+                        List<Role> roles = expansion.isExpanded()
+                                ? queryService.findRoles(snapshot, List.of(employeeId)).getOrDefault(employeeId, Collections.emptyList())
+                                : Collections.emptyList();
+                        entry.put(EmployeeEntryWriter.ROLES_PROPERTY, expansion.rolesValue(
+                                EmployeeEntryWriter.rolesUri(ODataLinks.serviceRoot(request), employeeId), roles));
+                    }
+                    log.info("[getEmployeeDetail] 결과: {}", entry.get(EmployeeField.EMPLOYEE_ID.property()));
                     Map<String, Object> response = new HashMap<>();
-                    response.put("d", emp);
+                    response.put("d", entry);
                     return ResponseEntity.ok(response);
                 })
-                .orElseGet(() -> {
-                    log.warn("[getEmployeeDetail] 결과: 직원 없음");
-                    Map<String, Object> response = new HashMap<>();
-                    Map<String, String> errorDetail = new HashMap<>();
-                    errorDetail.put("code", "NotFound");
-                    errorDetail.put("message", "Employee not found");
-                    response.put("error", errorDetail);
-                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
-                });
+                .orElseGet(this::employeeNotFound);
     }
 
-
-/*    @GetMapping("/Employees/{employeeId}/Roles")
-    public ResponseEntity<?> getEmployeeRoles(@PathVariable String employeeId) {
-        return queryService.findById(employeeId)
-                .map(Employee::getRoles)
-                .map(ResponseEntity::ok)
-                .orElseGet(() -> ResponseEntity.notFound().build());
+    /**
+     * 이 요청이 응답에 쓸 데이터셋 스냅샷. ETag 를 만든 인터셉터가 잡아 둔 스냅샷이 있으면 그것을 써서
+     * ETag 버전과 응답 내용이 어긋나지 않게 하고, 없으면 지금 공개된 스냅샷을 쓴다.
+     */
+    private DatasetSnapshot snapshotOf(HttpServletRequest request) {
+        DatasetSnapshot pinned = (DatasetSnapshot) request.getAttribute(DatasetETagInterceptor.SNAPSHOT_ATTRIBUTE);
+        return pinned != null ? pinned : datasetService.snapshot();
     }
 
-    @GetMapping("/Employees/{employeeId}/Privileges")
-    public ResponseEntity<?> getEmployeePrivileges(@PathVariable String employeeId) {
-        return queryService.findById(employeeId)
-                .map(emp -> {
-                    List<Privilege> privileges = emp.getRoles().stream()
-                            .flatMap(r -> r.getPrivileges().stream())
-                            .distinct()
-                            .collect(Collectors.toList());
-                    return ResponseEntity.ok(privileges);
-                })
-                .orElseGet(() -> ResponseEntity.notFound().build());
-    }*/
+    private ResponseEntity<Map<String, Object>> employeeNotFound() {
+        log.warn("[getEmployeeDetail] 결과: 직원 없음");
+        Map<String, Object> response = new HashMap<>();
+        Map<String, String> errorDetail = new HashMap<>();
+        errorDetail.put("code", "NotFound");
+        errorDetail.put("message", "Employee not found");
+        response.put("error", errorDetail);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    }
 
     @GetMapping("/Employees/{employeeId}/Roles")
-    public ResponseEntity<?> getEmployeeRoles(@PathVariable String employeeId) {
-        return queryService.findById(employeeId)
+    public ResponseEntity<?> getEmployeeRoles(@PathVariable String employeeId, HttpServletRequest request) {
+        return queryService.findById(snapshotOf(request), employeeId)
                 .map(emp -> {
                     Map<String, Object> response = new HashMap<>();
                     response.put("d", emp.getRoles());
@@ -154,8 +499,8 @@ public class SapController {
     }
 
     @GetMapping("/Employees/{employeeId}/Privileges")
-    public ResponseEntity<?> getEmployeePrivileges(@PathVariable String employeeId) {
-        return queryService.findById(employeeId)
+    public ResponseEntity<?> getEmployeePrivileges(@PathVariable String employeeId, HttpServletRequest request) {
+        return queryService.findById(snapshotOf(request), employeeId)
                 .map(emp -> {
                     List<Privilege> privileges = emp.getRoles().stream()
                             .flatMap(r -> r.getPrivileges().stream())
@@ -182,85 +527,115 @@ public class SapController {
             @PathVariable String employeeId,
             @RequestParam String object,
             @RequestParam String field,
-            @RequestParam String value) {
+            @RequestParam String value,
+            HttpServletRequest request) {
 
-        return queryService.findById(employeeId)
-                .map(emp -> {
-                    boolean hasAuth = emp.getRoles().stream()
-                            .flatMap(role -> role.getPrivileges().stream())
-                            .anyMatch(priv -> priv.getPrivilegeId().equals(object) &&
-                                    priv.getPrivilegeName().equals(field + "=" + value));
-
-                    Map<String, Object> result = new HashMap<>();
-                    result.put("employeeId", employeeId);
-                    result.put("object", object);
-                    result.put("field", field);
-                    result.put("value", value);
-                    result.put("hasAuthorization", hasAuth);
-
-                    // OData2 스타일
-                    Map<String, Object> odata = new HashMap<>();
-                    odata.put("d", result);
-                    return ResponseEntity.ok(odata);
-                })
-                .orElseGet(() -> {
-                    // OData2 에러 구조
-                    Map<String, Object> error = new HashMap<>();
-                    Map<String, String> detail = new HashMap<>();
-                    detail.put("code", "NotFound");
-                    detail.put("message", "직원이 존재하지 않음");
-                    error.put("error", detail);
-                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
-                });
+        Boolean hasAuth = authorizationService.check(snapshotOf(request), employeeId, object, field, value);
+        if (hasAuth == null) {
+            // OData2 에러 구조
+            Map<String, Object> error = new HashMap<>();
+            Map<String, String> detail = new HashMap<>();
+            detail.put("code", "NotFound");
+            detail.put("message", "직원이 존재하지 않음");
+            error.put("error", detail);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("employeeId", employeeId);
+        result.put("object", object);
+        result.put("field", field);
+        result.put("value", value);
+        result.put("hasAuthorization", hasAuth);
+
+        // OData2 스타일
+        Map<String, Object> odata = new HashMap<>();
+        odata.put("d", result);
+        return ResponseEntity.ok(odata);
     }
 
 
-    private List<Employee> applyFilter(List<Employee> employees, String filter) {
-        String[] conditions = filter.split(" and ");
-        for (String condition : conditions) {
-            condition = condition.trim();
-
-            // 연산자별로 분기 처리
-            if (condition.contains(" eq ")) {
-                String[] parts = condition.split(" eq ");
-                String field = parts[0].trim();
-                String value = parts[1].replace("'", "").trim();
-                employees = employees.stream()
-                        .filter(e -> filterUtil.matchEquals(e, field, value))
-                        .collect(Collectors.toList());
-            } else if (condition.contains(" le ")) {
-                String[] parts = condition.split(" le ");
-                String field = parts[0].trim();
-                String value = parts[1].replace("'", "").trim();
-                employees = employees.stream()
-                        .filter(e -> filterUtil.matchComparison(e, field, "le", value))
-                        .collect(Collectors.toList());
-            } else if (condition.contains(" lt ")) {
-                String[] parts = condition.split(" lt ");
-                String field = parts[0].trim();
-                String value = parts[1].replace("'", "").trim();
-                employees = employees.stream()
-                        .filter(e -> filterUtil.matchComparison(e, field, "lt", value))
-                        .collect(Collectors.toList());
-            } else if (condition.contains(" ge ")) {
-                String[] parts = condition.split(" ge ");
-                String field = parts[0].trim();
-                String value = parts[1].replace("'", "").trim();
-                employees = employees.stream()
-                        .filter(e -> filterUtil.matchComparison(e, field, "ge", value))
-                        .collect(Collectors.toList());
-            } else if (condition.contains(" gt ")) {
-                String[] parts = condition.split(" gt ");
-                String field = parts[0].trim();
-                String value = parts[1].replace("'", "").trim();
-                employees = employees.stream()
-                        .filter(e -> filterUtil.matchComparison(e, field, "gt", value))
-                        .collect(Collectors.toList());
-            }
+    /**
+     * 일괄 권한 확인. 본문은 [{"employeeId","object","field","value"}, ...] 배열이며,
+     * 결과는 요청 순서대로 {"d":{"results":[...]}} 로 스트리밍된다. 없는 직원의 건은 hasAuthorization=null.
+     */
+    @PostMapping("/CheckAuthorization")
+    public ResponseEntity<StreamingResponseBody> checkAuthorizations(@RequestBody List<AuthorizationCheck> checks,
+                                                                     HttpServletRequest request) {
+        log.info("▶[checkAuthorizations] 요청: {}건", checks.size());
+        String invalid = null;
+        if (checks.size() > bulkMaxChecks) {
+            invalid = "한 번에 최대 " + bulkMaxChecks + "건까지 확인할 수 있습니다";
+        } else if (checks.stream().anyMatch(c -> c == null || c.getEmployeeId() == null)) {
+            invalid = "employeeId 가 없는 항목이 있습니다";
+        }
+        if (invalid != null) {
+            Map<String, Object> error = new HashMap<>();
+            Map<String, String> detail = new HashMap<>();
+            detail.put("code", "BadRequest");
+            detail.put("message", invalid);
+            error.put("error", detail);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> objectMapper.writeValue(out, error));
         }
-        return employees;
+
+        DatasetSnapshot snapshot = snapshotOf(request);
+
+        // 전체 결과를 모아 두지 않고 CHECK_BATCH_SIZE 건씩 판정해 바로 쓴다
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                json.writeStartObject();
+                json.writeObjectFieldStart("d");
+                json.writeArrayFieldStart("results");
+                for (int from = 0; from < checks.size(); from += CHECK_BATCH_SIZE) {
+                    List<AuthorizationCheck> batch = checks.subList(from, Math.min(checks.size(), from + CHECK_BATCH_SIZE));
+                    Boolean[] results = authorizationService.checkAll(snapshot, batch);
+                    for (int i = 0; i < results.length; i++) {
+                        AuthorizationCheck check = batch.get(i);
+                        json.writeStartObject();
+                        json.writeStringField("employeeId", check.getEmployeeId());
+                        json.writeStringField("object", check.getObject());
+                        json.writeStringField("field", check.getField());
+                        json.writeStringField("value", check.getValue());
+                        if (results[i] == null) {
+                            json.writeNullField("hasAuthorization");
+                        } else {
+                            json.writeBooleanField("hasAuthorization", results[i]);
+                        }
+                        json.writeEndObject();
+                    }
+                    json.flush();
+                }
+                json.writeEndArray();
+                json.writeEndObject();
+                json.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+
+    @ExceptionHandler(FilterSyntaxException.class)
+    public ResponseEntity<?> handleFilterSyntax(FilterSyntaxException ex) {
+        log.warn("[filter] 잘못된 $filter: {}", ex.getMessage());
+        Map<String, Object> error = new HashMap<>();
+        Map<String, String> detail = new HashMap<>();
+        detail.put("code", "BadRequest");
+        detail.put("message", ex.getMessage());
+        error.put("error", detail);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    @ExceptionHandler(InvalidQueryOptionException.class)
+    public ResponseEntity<?> handleInvalidQueryOption(InvalidQueryOptionException ex) {
+        log.warn("[query] 잘못된 쿼리 옵션: {}", ex.getMessage());
+        Map<String, Object> error = new HashMap<>();
+        Map<String, String> detail = new HashMap<>();
+        detail.put("code", "BadRequest");
+        detail.put("message", ex.getMessage());
+        error.put("error", detail);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
 
     private String getClientIp(HttpServletRequest request) {
         String xfHeader = request.getHeader("X-Forwarded-For");
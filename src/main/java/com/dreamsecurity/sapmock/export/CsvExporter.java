@@ -1,17 +1,78 @@
 package com.dreamsecurity.sapmock.export;
 
+import com.dreamsecurity.sapmock.filter.EmployeeField;
 import com.dreamsecurity.sapmock.model.Employee;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.servlet.http.HttpServletResponse;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 public class CsvExporter {
 
+    /** 엑셀이 숫자로 바꾸지 않도록 ="..." 로 감싸는 필드 */
+    private static final List<EmployeeField> TEXT_FORMULA_FIELDS = List.of(EmployeeField.BANK_ACCOUNT, EmployeeField.TAX_ID);
+
+    /** 이 행 수마다 출력 스트림으로 내보낸다 */
+    @Value("${sap.export.flush-rows:1000}")
+    private int flushRows;
+
+    /**
+     * 행을 하나씩 넘겨주는 데이터 원본. 값은 export 에 넘긴 fields 순서다.
+     */
+    @FunctionalInterface
+    public interface RowSource {
+        void forEachRow(Consumer<Object[]> action);
+    }
+
+    /**
+     * rows 가 넘기는 행을 모으지 않고 바로 CSV 로 써 내려간다 (UTF-8 BOM + 헤더 + 행).
+     * flush-rows 행마다 flush 하므로 out 이 응답/GZIP 스트림이면 그때그때 클라이언트로 전송되고, 메모리 사용량은 행 수와 관계없다.
+     * out 은 닫지 않는다.
+     *
+     * @return 쓴 행 수
+     */
+    public long exportRows(OutputStream out, List<EmployeeField> fields, RowSource rows) throws IOException {
+        out.write(0xEF);
+        out.write(0xBB);
+        out.write(0xBF);
+
+        String[] header = fields.stream().map(EmployeeField::property).toArray(String[]::new);
+        boolean[] formula = new boolean[fields.size()];
+        for (int i = 0; i < formula.length; i++) {
+            formula[i] = TEXT_FORMULA_FIELDS.contains(fields.get(i));
+        }
+        CSVPrinter printer = new CSVPrinter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)),
+                CSVFormat.DEFAULT.withHeader(header));
+        long[] written = new long[1];
+        Object[] record = new Object[fields.size()];
+        try {
+            rows.forEachRow(row -> {
+                for (int i = 0; i < record.length; i++) {
+                    record[i] = formula[i] && row[i] != null ? "=\"" + row[i] + "\"" : row[i];
+                }
+                try {
+                    printer.printRecord(record);
+                    if (++written[0] % flushRows == 0) {
+                        printer.flush();
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        printer.flush();
+        return written[0];
+    }
+
     public void exportEmployeesToCsv(List<Employee> employees, String filePath) throws IOException {
         try (CSVPrinter printer = new CSVPrinter(new FileWriter(filePath),
                 CSVFormat.DEFAULT.withHeader("employeeId", "firstName", "lastName", "middleName", "birthDate", "gender",
@@ -33,45 +94,16 @@ public class CsvExporter {
         // 👉 OutputStreamWriter를 UTF-8로 명시적으로 지정
         response.setContentType("text/csv; charset=UTF-8");
 
-        // 2️⃣ OutputStream 가져오기
-        OutputStream out = response.getOutputStream();
-
-        // 3️⃣ BOM 추가
-        out.write(0xEF);
-        out.write(0xBB);
-        out.write(0xBF);
-
-        try (CSVPrinter printer = new CSVPrinter(new PrintWriter(new OutputStreamWriter(response.getOutputStream(), "UTF-8")),
-                CSVFormat.DEFAULT.withHeader("employeeId", "firstName", "lastName", "middleName", "birthDate", "gender",
-                        "nationality", "maritalStatus", "position", "jobTitle", "department", "departmentName",
-                        "hireDate", "terminationDate", "workEmail", "workPhone", "mobilePhone", "address",
-                        "bankAccount", "taxId"))) {
-
+        List<EmployeeField> fields = List.of(EmployeeField.values());
+        exportRows(response.getOutputStream(), fields, action -> {
             for (Employee e : employees) {
-                printer.printRecord(
-                        e.getEmployeeId(),
-                        e.getFirstName(),
-                        e.getLastName(),
-                        e.getMiddleName(),
-                        e.getBirthDate(),
-                        e.getGender(),
-                        e.getNationality(),
-                        e.getMaritalStatus(),
-                        e.getPosition(),
-                        e.getJobTitle(),
-                        e.getDepartment(),
-                        e.getDepartmentName(),
-                        e.getHireDate(),
-                        e.getTerminationDate(),
-                        e.getWorkEmail(),
-                        e.getWorkPhone(),
-                        e.getMobilePhone(),
-                        e.getAddress(),
-                        "=\"" + e.getBankAccount() + "\"",
-                        "=\"" + e.getTaxId() + "\""
-                );
+                Object[] row = new Object[fields.size()];
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = fields.get(i).get(e);
+                }
+                action.accept(row);
             }
-        }
+        });
     }
 
 }
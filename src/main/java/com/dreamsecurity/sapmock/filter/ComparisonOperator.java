@@ -0,0 +1,46 @@
+package com.dreamsecurity.sapmock.filter;
+
+public enum ComparisonOperator {
+    EQ("eq"),
+    NE("ne"),
+    GT("gt"),
+    GE("ge"),
+    LT("lt"),
+    LE("le");
+
+    private final String keyword;
+
+    ComparisonOperator(String keyword) {
+        this.keyword = keyword;
+    }
+
+    public String keyword() {
+        return keyword;
+    }
+
+    public boolean isRange() {
+        return this != EQ && this != NE;
+    }
+
+    /** compareTo 결과(필드값 - 리터럴)가 이 연산자를 만족하는지 */
+    public boolean accepts(int compared) {
+        switch (this) {
+            case EQ: return compared == 0;
+            case NE: return compared != 0;
+            case GT: return compared > 0;
+            case GE: return compared >= 0;
+            case LT: return compared < 0;
+            case LE: return compared <= 0;
+            default: return false;
+        }
+    }
+
+    public static ComparisonOperator fromKeyword(String keyword) {
+        for (ComparisonOperator op : values()) {
+            if (op.keyword.equals(keyword)) {
+                return op;
+            }
+        }
+        return null;
+    }
+}
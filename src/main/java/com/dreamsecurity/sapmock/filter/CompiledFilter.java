@@ -0,0 +1,52 @@
+package com.dreamsecurity.sapmock.filter;
+
+import com.dreamsecurity.sapmock.model.Employee;
+
+import java.util.function.Predicate;
+
+/**
+ * 원본 $filter 문자열과 파싱 결과를 함께 보관한다. 불변이므로 캐시에서 여러 요청이 공유한다.
+ */
+public final class CompiledFilter implements Predicate<Employee> {
+
+    /** $filter 가 없는 경우 */
+    public static final CompiledFilter ALL = new CompiledFilter("", null);
+
+    private final String source;
+    private final FilterExpression expression;
+
+    CompiledFilter(String source, FilterExpression expression) {
+        this.source = source;
+        this.expression = expression;
+    }
+
+    public static CompiledFilter compile(String filter) {
+        if (filter == null || filter.isBlank()) {
+            return ALL;
+        }
+        return new CompiledFilter(filter, FilterParser.parse(filter));
+    }
+
+    public String source() {
+        return source;
+    }
+
+    /** 조건이 없으면 null */
+    public FilterExpression expression() {
+        return expression;
+    }
+
+    public boolean isEmpty() {
+        return expression == null;
+    }
+
+    @Override
+    public boolean test(Employee employee) {
+        return expression == null || expression.test(employee);
+    }
+
+    @Override
+    public String toString() {
+        return expression == null ? "<all>" : expression.toString();
+    }
+}
@@ -0,0 +1,73 @@
+package com.dreamsecurity.sapmock.filter;
+
+import com.dreamsecurity.sapmock.model.Employee;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * $filter 에서 참조할 수 있는 Employee 속성과 그 접근자.
+ * 필드명을 매 비교마다 switch 로 찾는 대신, 파싱 시점에 한 번 이 enum 으로 해석한다.
+ */
+public enum EmployeeField {
+    EMPLOYEE_ID("employeeId", FieldType.CODE, Employee::getEmployeeId),
+    FIRST_NAME("firstName", FieldType.TEXT, Employee::getFirstName),
+    LAST_NAME("lastName", FieldType.TEXT, Employee::getLastName),
+    MIDDLE_NAME("middleName", FieldType.TEXT, Employee::getMiddleName),
+    BIRTH_DATE("birthDate", FieldType.DATE, Employee::getBirthDate),
+    GENDER("gender", FieldType.TEXT, Employee::getGender),
+    NATIONALITY("nationality", FieldType.TEXT, Employee::getNationality),
+    MARITAL_STATUS("maritalStatus", FieldType.TEXT, Employee::getMaritalStatus),
+    POSITION("position", FieldType.TEXT, Employee::getPosition),
+    JOB_TITLE("jobTitle", FieldType.TEXT, Employee::getJobTitle),
+    DEPARTMENT("department", FieldType.CODE, Employee::getDepartment),
+    DEPARTMENT_NAME("departmentName", FieldType.TEXT, Employee::getDepartmentName),
+    HIRE_DATE("hireDate", FieldType.DATE, Employee::getHireDate),
+    TERMINATION_DATE("terminationDate", FieldType.DATE, Employee::getTerminationDate),
+    WORK_EMAIL("workEmail", FieldType.TEXT, Employee::getWorkEmail),
+    WORK_PHONE("workPhone", FieldType.TEXT, Employee::getWorkPhone),
+    MOBILE_PHONE("mobilePhone", FieldType.TEXT, Employee::getMobilePhone),
+    ADDRESS("address", FieldType.TEXT, Employee::getAddress),
+    BANK_ACCOUNT("bankAccount", FieldType.CODE, Employee::getBankAccount),
+    TAX_ID("taxId", FieldType.CODE, Employee::getTaxId);
+
+    private static final Map<String, EmployeeField> BY_PROPERTY;
+
+    static {
+        Map<String, EmployeeField> map = new HashMap<>();
+        for (EmployeeField field : values()) {
+            map.put(field.property, field);
+        }
+        BY_PROPERTY = Collections.unmodifiableMap(map);
+    }
+
+    private final String property;
+    private final FieldType type;
+    private final Function<Employee, Object> accessor;
+
+    EmployeeField(String property, FieldType type, Function<Employee, Object> accessor) {
+        this.property = property;
+        this.type = type;
+        this.accessor = accessor;
+    }
+
+    /** OData/JPA 속성명 (예: hireDate) */
+    public String property() {
+        return property;
+    }
+
+    public FieldType type() {
+        return type;
+    }
+
+    public Object get(Employee employee) {
+        return accessor.apply(employee);
+    }
+
+    /** 속성명으로 필드를 찾는다. 없으면 null */
+    public static EmployeeField fromProperty(String property) {
+        return BY_PROPERTY.get(property);
+    }
+}
@@ -0,0 +1,13 @@
+package com.dreamsecurity.sapmock.filter;
+
+/**
+ * 필드별 비교 규칙.
+ */
+public enum FieldType {
+    /** 대소문자를 무시한 eq/ne 만 지원 */
+    TEXT,
+    /** 정확히 일치하는 eq/ne, 숫자로 해석한 gt/ge/lt/le 지원 (부서코드, 계좌번호 등) */
+    CODE,
+    /** yyyy-MM-dd 날짜 비교 */
+    DATE
+}
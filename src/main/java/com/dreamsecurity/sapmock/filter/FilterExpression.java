@@ -0,0 +1,217 @@
+package com.dreamsecurity.sapmock.filter;
+
+import com.dreamsecurity.sapmock.model.Employee;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 파싱된 $filter 의 구문 트리.
+ * 리터럴은 생성 시점에 필드 타입에 맞게(LocalDate, Long 등) 한 번만 해석되므로 평가 중에는 파싱이 일어나지 않는다.
+ */
+public abstract class FilterExpression {
+
+    public abstract boolean test(Employee employee);
+
+    public abstract <R> R accept(Visitor<R> visitor);
+
+    public interface Visitor<R> {
+        R visitAnd(And and);
+        R visitOr(Or or);
+        R visitNot(Not not);
+        R visitComparison(Comparison comparison);
+    }
+
+    public static final class And extends FilterExpression {
+        private final List<FilterExpression> operands;
+
+        public And(List<FilterExpression> operands) {
+            this.operands = Collections.unmodifiableList(operands);
+        }
+
+        public List<FilterExpression> operands() {
+            return operands;
+        }
+
+        @Override
+        public boolean test(Employee employee) {
+            for (FilterExpression operand : operands) {
+                if (!operand.test(employee)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public <R> R accept(Visitor<R> visitor) {
+            return visitor.visitAnd(this);
+        }
+
+        @Override
+        public String toString() {
+            return operands.stream().map(FilterExpression::toString).collect(Collectors.joining(" and ", "(", ")"));
+        }
+    }
+
+    public static final class Or extends FilterExpression {
+        private final List<FilterExpression> operands;
+
+        public Or(List<FilterExpression> operands) {
+            this.operands = Collections.unmodifiableList(operands);
+        }
+
+        public List<FilterExpression> operands() {
+            return operands;
+        }
+
+        @Override
+        public boolean test(Employee employee) {
+            for (FilterExpression operand : operands) {
+                if (operand.test(employee)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public <R> R accept(Visitor<R> visitor) {
+            return visitor.visitOr(this);
+        }
+
+        @Override
+        public String toString() {
+            return operands.stream().map(FilterExpression::toString).collect(Collectors.joining(" or ", "(", ")"));
+        }
+    }
+
+    public static final class Not extends FilterExpression {
+        private final FilterExpression operand;
+
+        public Not(FilterExpression operand) {
+            this.operand = operand;
+        }
+
+        public FilterExpression operand() {
+            return operand;
+        }
+
+        @Override
+        public boolean test(Employee employee) {
+            return !operand.test(employee);
+        }
+
+        @Override
+        public <R> R accept(Visitor<R> visitor) {
+            return visitor.visitNot(this);
+        }
+
+        @Override
+        public String toString() {
+            return "not " + operand;
+        }
+    }
+
+    /**
+     * field op literal. 리터럴은 필드 타입에 따라 String(eq/ne), Long(CODE 범위비교), LocalDate(DATE) 로 해석된다.
+     * null 리터럴은 eq/ne 에서만 허용된다.
+     */
+    public static final class Comparison extends FilterExpression {
+        private final EmployeeField field;
+        private final ComparisonOperator operator;
+        private final Object operand;
+
+        public Comparison(EmployeeField field, ComparisonOperator operator, String literal) {
+            this.field = field;
+            this.operator = operator;
+            this.operand = resolve(field, operator, literal);
+        }
+
+        private static Object resolve(EmployeeField field, ComparisonOperator operator, String literal) {
+            if (literal == null) {
+                if (operator.isRange()) {
+                    throw new FilterSyntaxException("null 은 eq/ne 로만 비교할 수 있습니다: " + field.property());
+                }
+                return null;
+            }
+            switch (field.type()) {
+                case DATE:
+                    try {
+                        return LocalDate.parse(literal);
+                    } catch (RuntimeException ex) {
+                        throw new FilterSyntaxException("날짜 형식(yyyy-MM-dd)이 아닙니다: " + literal);
+                    }
+                case CODE:
+                    if (!operator.isRange()) {
+                        return literal;
+                    }
+                    try {
+                        return Long.parseLong(literal);
+                    } catch (NumberFormatException ex) {
+                        throw new FilterSyntaxException("숫자가 아닙니다: " + literal);
+                    }
+                default:
+                    if (operator.isRange()) {
+                        throw new FilterSyntaxException(field.property() + " 필드는 " + operator.keyword() + " 비교를 지원하지 않습니다");
+                    }
+                    return literal;
+            }
+        }
+
+        public EmployeeField field() {
+            return field;
+        }
+
+        public ComparisonOperator operator() {
+            return operator;
+        }
+
+        /** 해석된 리터럴 (String, Long, LocalDate 또는 null) */
+        public Object operand() {
+            return operand;
+        }
+
+        @Override
+        public boolean test(Employee employee) {
+            return matchesValue(field.get(employee));
+        }
+
+        /** 필드 값 하나에 대해 비교식을 평가한다 */
+        public boolean matchesValue(Object value) {
+            if (operand == null) {
+                return operator == ComparisonOperator.EQ ? value == null : value != null;
+            }
+            if (value == null) {
+                return operator == ComparisonOperator.NE;
+            }
+            switch (field.type()) {
+                case DATE:
+                    return operator.accepts(((LocalDate) value).compareTo((LocalDate) operand));
+                case CODE:
+                    if (!operator.isRange()) {
+                        return value.equals(operand) == (operator == ComparisonOperator.EQ);
+                    }
+                    try {
+                        return operator.accepts(Long.compare(Long.parseLong((String) value), (Long) operand));
+                    } catch (NumberFormatException ex) {
+                        return false;
+                    }
+                default:
+                    return ((String) value).equalsIgnoreCase((String) operand) == (operator == ComparisonOperator.EQ);
+            }
+        }
+
+        @Override
+        public <R> R accept(Visitor<R> visitor) {
+            return visitor.visitComparison(this);
+        }
+
+        @Override
+        public String toString() {
+            return field.property() + " " + operator.keyword() + " " + (operand == null ? "null" : "'" + operand + "'");
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.dreamsecurity.sapmock.filter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * OData v2 $filter 파서 (재귀 하강).
+ *
+ * <pre>
+ * expr       := orExpr
+ * orExpr     := andExpr ('or' andExpr)*
+ * andExpr    := unary ('and' unary)*
+ * unary      := 'not' unary | '(' expr ')' | comparison
+ * comparison := property op literal
+ * op         := eq | ne | gt | ge | lt | le
+ * literal    := 'text' | number | datetime'yyyy-MM-ddTHH:mm:ss' | null
+ * </pre>
+ *
+ * 이전 구현과의 호환을 위해 따옴표 없는 값(department eq 1001, gender eq M)도 리터럴로 받아들인다.
+ */
+public final class FilterParser {
+
+    private enum TokenType { LPAREN, RPAREN, WORD, STRING, END }
+
+    private static final class Token {
+        final TokenType type;
+        final String text;
+        final int position;
+
+        Token(TokenType type, String text, int position) {
+            this.type = type;
+            this.text = text;
+            this.position = position;
+        }
+    }
+
+    private final String source;
+    private final List<Token> tokens;
+    private int index;
+
+    private FilterParser(String source) {
+        this.source = source;
+        this.tokens = tokenize(source);
+    }
+
+    public static FilterExpression parse(String filter) {
+        FilterParser parser = new FilterParser(filter);
+        FilterExpression expression = parser.parseOr();
+        if (parser.peek().type != TokenType.END) {
+            throw parser.error("예상하지 못한 토큰 '" + parser.peek().text + "'");
+        }
+        return expression;
+    }
+
+    private FilterExpression parseOr() {
+        List<FilterExpression> operands = new ArrayList<>();
+        operands.add(parseAnd());
+        while (isKeyword(peek(), "or")) {
+            index++;
+            operands.add(parseAnd());
+        }
+        return operands.size() == 1 ? operands.get(0) : new FilterExpression.Or(operands);
+    }
+
+    private FilterExpression parseAnd() {
+        List<FilterExpression> operands = new ArrayList<>();
+        operands.add(parseUnary());
+        while (isKeyword(peek(), "and")) {
+            index++;
+            operands.add(parseUnary());
+        }
+        return operands.size() == 1 ? operands.get(0) : new FilterExpression.And(operands);
+    }
+
+    private FilterExpression parseUnary() {
+        Token token = peek();
+        if (isKeyword(token, "not")) {
+            index++;
+            return new FilterExpression.Not(parseUnary());
+        }
+        if (token.type == TokenType.LPAREN) {
+            index++;
+            FilterExpression inner = parseOr();
+            expect(TokenType.RPAREN);
+            return inner;
+        }
+        return parseComparison();
+    }
+
+    private FilterExpression parseComparison() {
+        Token property = expect(TokenType.WORD);
+        EmployeeField field = EmployeeField.fromProperty(property.text);
+        if (field == null) {
+            throw error("알 수 없는 필드 '" + property.text + "'");
+        }
+
+        Token opToken = expect(TokenType.WORD);
+        ComparisonOperator operator = ComparisonOperator.fromKeyword(opToken.text.toLowerCase());
+        if (operator == null) {
+            throw error("알 수 없는 연산자 '" + opToken.text + "'");
+        }
+
+        return new FilterExpression.Comparison(field, operator, parseLiteral());
+    }
+
+    private String parseLiteral() {
+        Token token = peek();
+        if (token.type == TokenType.STRING) {
+            index++;
+            return token.text;
+        }
+        if (token.type != TokenType.WORD) {
+            throw error("리터럴이 필요합니다");
+        }
+        index++;
+        if (token.text.equalsIgnoreCase("null")) {
+            return null;
+        }
+        if (token.text.equalsIgnoreCase("datetime") && peek().type == TokenType.STRING) {
+            String value = tokens.get(index++).text;
+            int timeStart = value.indexOf('T');
+            return timeStart < 0 ? value : value.substring(0, timeStart);
+        }
+        return token.text;
+    }
+
+    private Token peek() {
+        return tokens.get(index);
+    }
+
+    private Token expect(TokenType type) {
+        Token token = peek();
+        if (token.type != type) {
+            throw error(type + " 이(가) 필요합니다");
+        }
+        index++;
+        return token;
+    }
+
+    private static boolean isKeyword(Token token, String keyword) {
+        return token.type == TokenType.WORD && token.text.equalsIgnoreCase(keyword);
+    }
+
+    private FilterSyntaxException error(String message) {
+        return new FilterSyntaxException("$filter 오류 (위치 " + peek().position + "): " + message + " - " + source);
+    }
+
+    private static List<Token> tokenize(String source) {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        int length = source.length();
+        while (i < length) {
+            char c = source.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(') {
+                tokens.add(new Token(TokenType.LPAREN, "(", i++));
+            } else if (c == ')') {
+                tokens.add(new Token(TokenType.RPAREN, ")", i++));
+            } else if (c == '\'') {
+                int start = i++;
+                StringBuilder sb = new StringBuilder();
+                while (true) {
+                    if (i >= length) {
+                        throw new FilterSyntaxException("$filter 오류 (위치 " + start + "): 닫히지 않은 문자열 - " + source);
+                    }
+                    char ch = source.charAt(i++);
+                    if (ch == '\'') {
+                        // OData 는 문자열 안의 작은따옴표를 '' 로 이스케이프한다
+                        if (i < length && source.charAt(i) == '\'') {
+                            sb.append('\'');
+                            i++;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        sb.append(ch);
+                    }
+                }
+                tokens.add(new Token(TokenType.STRING, sb.toString(), start));
+            } else {
+                int start = i;
+                while (i < length) {
+                    char ch = source.charAt(i);
+                    if (Character.isWhitespace(ch) || ch == '(' || ch == ')' || ch == '\'') {
+                        break;
+                    }
+                    i++;
+                }
+                tokens.add(new Token(TokenType.WORD, source.substring(start, i), start));
+            }
+        }
+        tokens.add(new Token(TokenType.END, "<end>", length));
+        return tokens;
+    }
+}
@@ -0,0 +1,11 @@
+package com.dreamsecurity.sapmock.filter;
+
+/**
+ * $filter 문법 오류 또는 필드에 맞지 않는 리터럴. 컨트롤러에서 400 BadRequest 로 변환된다.
+ */
+public class FilterSyntaxException extends IllegalArgumentException {
+
+    public FilterSyntaxException(String message) {
+        super(message);
+    }
+}
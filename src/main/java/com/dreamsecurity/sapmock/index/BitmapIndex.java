@@ -0,0 +1,66 @@
+package com.dreamsecurity.sapmock.index;
+
+import com.dreamsecurity.sapmock.filter.EmployeeField;
+import com.dreamsecurity.sapmock.filter.FieldType;
+import com.dreamsecurity.sapmock.store.EmployeeStore;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 값 종류가 적은 필드(부서, 성별, 국적 등)의 값 → 순번 집합 인덱스.
+ * TEXT 필드는 $filter 비교 규칙과 같이 대소문자를 무시하도록 소문자로 정규화한 값을 키로 쓴다.
+ */
+public class BitmapIndex {
+
+    private static final RoaringBitmap EMPTY = new RoaringBitmap();
+
+    private final EmployeeField field;
+    private final Map<String, RoaringBitmap> bitmaps;
+    private final RoaringBitmap nulls;
+
+    private BitmapIndex(EmployeeField field, Map<String, RoaringBitmap> bitmaps, RoaringBitmap nulls) {
+        this.field = field;
+        this.bitmaps = bitmaps;
+        this.nulls = nulls;
+    }
+
+    public static BitmapIndex build(EmployeeStore store, EmployeeField field) {
+        Map<String, RoaringBitmap> bitmaps = new HashMap<>();
+        RoaringBitmap nulls = new RoaringBitmap();
+        int size = store.size();
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            Object value = store.value(ordinal, field);
+            if (value == null) {
+                nulls.add(ordinal);
+            } else {
+                bitmaps.computeIfAbsent(normalize(field, value.toString()), k -> new RoaringBitmap()).add(ordinal);
+            }
+        }
+        bitmaps.values().forEach(RoaringBitmap::runOptimize);
+        nulls.runOptimize();
+        return new BitmapIndex(field, bitmaps, nulls);
+    }
+
+    public EmployeeField field() {
+        return field;
+    }
+
+    /** 값이 value 인 순번 집합. value 가 null 이면 값이 없는 직원. 반환된 비트맵은 수정하면 안 된다. */
+    public RoaringBitmap lookup(String value) {
+        if (value == null) {
+            return nulls;
+        }
+        return bitmaps.getOrDefault(normalize(field, value), EMPTY);
+    }
+
+    public int distinctValues() {
+        return bitmaps.size();
+    }
+
+    private static String normalize(EmployeeField field, String value) {
+        return field.type() == FieldType.TEXT ? value.toLowerCase(Locale.ROOT) : value;
+    }
+}
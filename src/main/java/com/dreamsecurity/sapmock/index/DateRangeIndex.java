@@ -0,0 +1,118 @@
+package com.dreamsecurity.sapmock.index;
+
+import com.dreamsecurity.sapmock.filter.ComparisonOperator;
+import com.dreamsecurity.sapmock.filter.EmployeeField;
+import com.dreamsecurity.sapmock.store.EmployeeStore;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * 날짜 필드의 정렬 인덱스.
+ * epochDays 는 오름차순으로 정렬된 날짜(epoch day)이고 ordinals 는 같은 위치의 직원 순번이다.
+ * 범위 조건은 이진 탐색 두 번으로 구간 [from, to) 를 구한 뒤 그 구간의 순번만 비트맵으로 만든다.
+ * 값이 없는 직원(예: 재직 중이라 terminationDate 가 null)은 별도의 nulls 비트맵에 둔다.
+ */
+public class DateRangeIndex {
+
+    private final EmployeeField field;
+    private final int[] epochDays;
+    private final int[] ordinals;
+    private final RoaringBitmap nulls;
+
+    private DateRangeIndex(EmployeeField field, int[] epochDays, int[] ordinals, RoaringBitmap nulls) {
+        this.field = field;
+        this.epochDays = epochDays;
+        this.ordinals = ordinals;
+        this.nulls = nulls;
+    }
+
+    public static DateRangeIndex build(EmployeeStore store, EmployeeField field) {
+        int size = store.size();
+        // 상위 32비트에 날짜, 하위 32비트에 순번을 넣어 long 정렬 한 번으로 (날짜, 순번) 순서를 만든다
+        long[] keys = new long[size];
+        int count = 0;
+        RoaringBitmap nulls = new RoaringBitmap();
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            LocalDate date = (LocalDate) store.value(ordinal, field);
+            if (date == null) {
+                nulls.add(ordinal);
+            } else {
+                keys[count++] = (date.toEpochDay() << 32) | (ordinal & 0xFFFFFFFFL);
+            }
+        }
+        Arrays.sort(keys, 0, count);
+
+        int[] epochDays = new int[count];
+        int[] ordinals = new int[count];
+        for (int i = 0; i < count; i++) {
+            epochDays[i] = (int) (keys[i] >> 32);
+            ordinals[i] = (int) keys[i];
+        }
+        nulls.runOptimize();
+        return new DateRangeIndex(field, epochDays, ordinals, nulls);
+    }
+
+    public EmployeeField field() {
+        return field;
+    }
+
+    /** 값이 없는 직원의 순번 집합. 수정하면 안 된다. */
+    public RoaringBitmap nulls() {
+        return nulls;
+    }
+
+    /**
+     * field op date 를 만족하는 순번 집합 (null 값 제외). NE 는 호출하는 쪽에서 EQ 의 여집합으로 처리한다.
+     */
+    public RoaringBitmap range(ComparisonOperator operator, LocalDate date) {
+        int day = (int) date.toEpochDay();
+        switch (operator) {
+            case EQ: return slice(lowerBound(day), upperBound(day));
+            case GT: return slice(upperBound(day), epochDays.length);
+            case GE: return slice(lowerBound(day), epochDays.length);
+            case LT: return slice(0, lowerBound(day));
+            case LE: return slice(0, upperBound(day));
+            default: throw new IllegalArgumentException("range index does not support " + operator);
+        }
+    }
+
+    private RoaringBitmap slice(int from, int to) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        if (from < to) {
+            bitmap.addN(ordinals, from, to - from);
+        }
+        return bitmap;
+    }
+
+    /** day 이상인 첫 위치 */
+    private int lowerBound(int day) {
+        int low = 0;
+        int high = epochDays.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDays[mid] < day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** day 초과인 첫 위치 */
+    private int upperBound(int day) {
+        int low = 0;
+        int high = epochDays.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDays[mid] <= day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,175 @@
+package com.dreamsecurity.sapmock.index;
+
+import com.dreamsecurity.sapmock.filter.ComparisonOperator;
+import com.dreamsecurity.sapmock.filter.EmployeeField;
+import com.dreamsecurity.sapmock.filter.FilterExpression;
+import com.dreamsecurity.sapmock.store.EmployeeStore;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 하나의 EmployeeStore 위에 만들어진 인덱스 묶음과, $filter 를 인덱스 연산으로 바꾸는 플래너.
+ *
+ * 인덱스가 있는 비교식은 비트맵으로, 없는 비교식은 "전체 + 재검사 필요" 로 평가한 뒤
+ * and 는 교집합, or 는 합집합, not 은 여집합으로 합친다. 결과는 실제 결과를 포함하는 후보 집합이다.
+ */
+public class EmployeeIndexes {
+
+    /** 값 종류가 적어 비트맵 인덱스를 유지하는 필드 */
+    public static final List<EmployeeField> BITMAP_FIELDS = List.of(
+            EmployeeField.DEPARTMENT,
+            EmployeeField.DEPARTMENT_NAME,
+            EmployeeField.GENDER,
+            EmployeeField.NATIONALITY,
+            EmployeeField.MARITAL_STATUS);
+
+    /** 범위 비교(gt/ge/lt/le)를 정렬 인덱스로 처리하는 날짜 필드 */
+    public static final List<EmployeeField> RANGE_FIELDS = List.of(
+            EmployeeField.BIRTH_DATE,
+            EmployeeField.HIRE_DATE,
+            EmployeeField.TERMINATION_DATE);
+
+    /** eq 조회를 해시 인덱스로 처리하는 키 필드 */
+    public static final List<EmployeeField> KEY_FIELDS = List.of(
+            EmployeeField.EMPLOYEE_ID,
+            EmployeeField.WORK_EMAIL,
+            EmployeeField.TAX_ID,
+            EmployeeField.BANK_ACCOUNT);
+
+    /** $orderby 첫 키로 자주 쓰여 정렬 순번 배열을 미리 만들어 두는 필드. employeeId 는 순번 순서 그대로다 */
+    public static final List<EmployeeField> SORT_FIELDS = List.of(
+            EmployeeField.LAST_NAME,
+            EmployeeField.HIRE_DATE,
+            EmployeeField.DEPARTMENT);
+
+    private final int size;
+    private final RoaringBitmap all;
+    private final Map<EmployeeField, BitmapIndex> bitmapIndexes;
+    private final Map<EmployeeField, DateRangeIndex> rangeIndexes;
+    private final Map<EmployeeField, UniqueKeyIndex> keyIndexes;
+    private final Map<EmployeeField, SortPermutation> sortPermutations;
+
+    private EmployeeIndexes(int size, Map<EmployeeField, BitmapIndex> bitmapIndexes,
+                            Map<EmployeeField, DateRangeIndex> rangeIndexes,
+                            Map<EmployeeField, UniqueKeyIndex> keyIndexes,
+                            Map<EmployeeField, SortPermutation> sortPermutations) {
+        this.size = size;
+        this.all = new RoaringBitmap();
+        this.all.add(0L, size);
+        this.bitmapIndexes = bitmapIndexes;
+        this.rangeIndexes = rangeIndexes;
+        this.keyIndexes = keyIndexes;
+        this.sortPermutations = sortPermutations;
+    }
+
+    public static EmployeeIndexes build(EmployeeStore store) {
+        Map<EmployeeField, BitmapIndex> bitmapIndexes = new EnumMap<>(EmployeeField.class);
+        for (EmployeeField field : BITMAP_FIELDS) {
+            bitmapIndexes.put(field, BitmapIndex.build(store, field));
+        }
+        Map<EmployeeField, DateRangeIndex> rangeIndexes = new EnumMap<>(EmployeeField.class);
+        for (EmployeeField field : RANGE_FIELDS) {
+            rangeIndexes.put(field, DateRangeIndex.build(store, field));
+        }
+        Map<EmployeeField, UniqueKeyIndex> keyIndexes = new EnumMap<>(EmployeeField.class);
+        for (EmployeeField field : KEY_FIELDS) {
+            keyIndexes.put(field, UniqueKeyIndex.build(store, field));
+        }
+        Map<EmployeeField, SortPermutation> sortPermutations = new EnumMap<>(EmployeeField.class);
+        for (EmployeeField field : SORT_FIELDS) {
+            sortPermutations.put(field, SortPermutation.build(store, field));
+        }
+        return new EmployeeIndexes(store.size(), bitmapIndexes, rangeIndexes, keyIndexes, sortPermutations);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** field 의 정렬 순번 배열. 미리 만들지 않은 필드면 null */
+    public SortPermutation sortPermutation(EmployeeField field) {
+        return sortPermutations.get(field);
+    }
+
+    public IndexPlan plan(FilterExpression expression) {
+        if (expression == null) {
+            return new IndexPlan(all, true);
+        }
+        return expression.accept(new Planner());
+    }
+
+    private final class Planner implements FilterExpression.Visitor<IndexPlan> {
+
+        @Override
+        public IndexPlan visitAnd(FilterExpression.And and) {
+            RoaringBitmap result = null;
+            boolean exact = true;
+            for (FilterExpression operand : and.operands()) {
+                IndexPlan plan = operand.accept(this);
+                exact &= plan.isExact();
+                if (plan.candidates() != all) {
+                    result = result == null ? plan.candidates() : RoaringBitmap.and(result, plan.candidates());
+                }
+            }
+            return new IndexPlan(result == null ? all : result, exact);
+        }
+
+        @Override
+        public IndexPlan visitOr(FilterExpression.Or or) {
+            RoaringBitmap result = new RoaringBitmap();
+            boolean exact = true;
+            for (FilterExpression operand : or.operands()) {
+                IndexPlan plan = operand.accept(this);
+                if (plan.candidates() == all) {
+                    return new IndexPlan(all, false);
+                }
+                exact &= plan.isExact();
+                result = RoaringBitmap.or(result, plan.candidates());
+            }
+            return new IndexPlan(result, exact);
+        }
+
+        @Override
+        public IndexPlan visitNot(FilterExpression.Not not) {
+            IndexPlan plan = not.operand().accept(this);
+            if (!plan.isExact()) {
+                return new IndexPlan(all, false);
+            }
+            return new IndexPlan(RoaringBitmap.andNot(all, plan.candidates()), true);
+        }
+
+        @Override
+        public IndexPlan visitComparison(FilterExpression.Comparison comparison) {
+            ComparisonOperator operator = comparison.operator();
+            Object operand = comparison.operand();
+            RoaringBitmap matches;
+
+            DateRangeIndex rangeIndex = rangeIndexes.get(comparison.field());
+            BitmapIndex bitmapIndex = bitmapIndexes.get(comparison.field());
+            UniqueKeyIndex keyIndex = keyIndexes.get(comparison.field());
+            if (rangeIndex != null) {
+                if (operand == null) {
+                    matches = rangeIndex.nulls();
+                } else {
+                    matches = rangeIndex.range(operator == ComparisonOperator.NE ? ComparisonOperator.EQ : operator,
+                            (LocalDate) operand);
+                }
+            } else if (bitmapIndex != null && !operator.isRange()) {
+                matches = bitmapIndex.lookup(operand == null ? null : operand.toString());
+            } else if (keyIndex != null && !operator.isRange() && operand != null) {
+                matches = keyIndex.lookup(operand.toString());
+            } else {
+                return new IndexPlan(all, false);
+            }
+
+            if (operator == ComparisonOperator.NE) {
+                return new IndexPlan(RoaringBitmap.andNot(all, matches), true);
+            }
+            return new IndexPlan(matches, true);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.dreamsecurity.sapmock.index;
+
+import org.roaringbitmap.RoaringBitmap;
+
+/**
+ * 인덱스로 좁힌 후보 순번 집합.
+ * exact 가 true 이면 후보가 곧 결과이고, false 이면 후보 각각에 원래 $filter 를 다시 평가해야 한다.
+ */
+public final class IndexPlan {
+
+    private final RoaringBitmap candidates;
+    private final boolean exact;
+
+    public IndexPlan(RoaringBitmap candidates, boolean exact) {
+        this.candidates = candidates;
+        this.exact = exact;
+    }
+
+    public RoaringBitmap candidates() {
+        return candidates;
+    }
+
+    public boolean isExact() {
+        return exact;
+    }
+}
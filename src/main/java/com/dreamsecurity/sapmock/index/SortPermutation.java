@@ -0,0 +1,117 @@
+package com.dreamsecurity.sapmock.index;
+
+import com.dreamsecurity.sapmock.filter.EmployeeField;
+import com.dreamsecurity.sapmock.sort.EmployeeOrder;
+import com.dreamsecurity.sapmock.store.EmployeeStore;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 한 필드 값 순서로 정렬한 순번 배열 ($orderby 용).
+ * 같은 값을 가진 순번들은 하나의 그룹으로 연속해 있고, 그룹 안에서는 순번(= employeeId) 오름차순이다.
+ * 값 종류가 적은 필드이므로 고유 값만 정렬한 뒤 계수 정렬로 만든다.
+ */
+public class SortPermutation {
+
+    private final EmployeeField field;
+    /** 정렬된 고유 값. null 이 있으면 맨 앞 */
+    private final Object[] keys;
+    /** keys[g] 그룹은 ordinals[groupStart[g]] 부터 ordinals[groupStart[g + 1]] 앞까지 */
+    private final int[] groupStart;
+    private final int[] ordinals;
+
+    private SortPermutation(EmployeeField field, Object[] keys, int[] groupStart, int[] ordinals) {
+        this.field = field;
+        this.keys = keys;
+        this.groupStart = groupStart;
+        this.ordinals = ordinals;
+    }
+
+    public static SortPermutation build(EmployeeStore store, EmployeeField field) {
+        int size = store.size();
+        Object[] values = new Object[size];
+        Map<Object, Integer> groups = new HashMap<>();
+        boolean hasNull = false;
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            Object value = store.value(ordinal, field);
+            values[ordinal] = value;
+            if (value == null) {
+                hasNull = true;
+            } else {
+                groups.putIfAbsent(value, 0);
+            }
+        }
+
+        List<Object> sorted = new ArrayList<>(groups.keySet());
+        sorted.sort(EmployeeOrder::compareValues);
+        if (hasNull) {
+            sorted.add(0, null);
+        }
+        Object[] keys = sorted.toArray();
+        for (int g = hasNull ? 1 : 0; g < keys.length; g++) {
+            groups.put(keys[g], g);
+        }
+
+        int[] groupStart = new int[keys.length + 1];
+        int[] groupOf = new int[size];
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            int g = values[ordinal] == null ? 0 : groups.get(values[ordinal]);
+            groupOf[ordinal] = g;
+            groupStart[g + 1]++;
+        }
+        for (int g = 0; g < keys.length; g++) {
+            groupStart[g + 1] += groupStart[g];
+        }
+        int[] next = groupStart.clone();
+        int[] ordinals = new int[size];
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            ordinals[next[groupOf[ordinal]]++] = ordinal;
+        }
+        return new SortPermutation(field, keys, groupStart, ordinals);
+    }
+
+    public EmployeeField field() {
+        return field;
+    }
+
+    public int groupCount() {
+        return keys.length;
+    }
+
+    public Object key(int group) {
+        return keys[group];
+    }
+
+    public int groupStart(int group) {
+        return groupStart[group];
+    }
+
+    public int groupEnd(int group) {
+        return groupStart[group + 1];
+    }
+
+    public int ordinalAt(int position) {
+        return ordinals[position];
+    }
+
+    /** value 그룹 번호. 없으면 -(삽입 위치 + 1) */
+    public int findGroup(Object value) {
+        int low = 0;
+        int high = keys.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int result = EmployeeOrder.compareValues(keys[mid], value);
+            if (result < 0) {
+                low = mid + 1;
+            } else if (result > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+}
@@ -0,0 +1,90 @@
+package com.dreamsecurity.sapmock.index;
+
+import com.dreamsecurity.sapmock.filter.EmployeeField;
+import com.dreamsecurity.sapmock.filter.FieldType;
+import com.dreamsecurity.sapmock.store.EmployeeStore;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.Locale;
+
+/**
+ * 사실상 직원마다 값이 다른 키 필드(employeeId, workEmail, taxId, bankAccount)의 해시 인덱스.
+ *
+ * 문자열 객체를 키로 들고 있지 않도록 int 배열 두 개로 된 open addressing 테이블에 (해시, 순번) 만 저장하고,
+ * 조회 시 해시가 같은 슬롯의 실제 값을 저장소에서 다시 비교한다. 이메일은 $filter 규칙과 같이 대소문자를 무시한다.
+ */
+public class UniqueKeyIndex {
+
+    private final EmployeeField field;
+    private final EmployeeStore store;
+    private final int[] hashes;
+    /** 순번 + 1. 0 은 빈 슬롯 */
+    private final int[] slots;
+    private final int mask;
+
+    private UniqueKeyIndex(EmployeeField field, EmployeeStore store, int capacity) {
+        this.field = field;
+        this.store = store;
+        this.hashes = new int[capacity];
+        this.slots = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    public static UniqueKeyIndex build(EmployeeStore store, EmployeeField field) {
+        int size = store.size();
+        // 적재율 50% 이하를 유지하는 2의 거듭제곱 크기
+        int capacity = Integer.highestOneBit(Math.max(2, size) * 2 - 1) << 1;
+        UniqueKeyIndex index = new UniqueKeyIndex(field, store, capacity);
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            Object value = store.value(ordinal, field);
+            if (value != null) {
+                index.insert(index.hash(value.toString()), ordinal);
+            }
+        }
+        return index;
+    }
+
+    public EmployeeField field() {
+        return field;
+    }
+
+    /** 값이 value 와 같은 직원들의 순번. 키 필드이므로 보통 0~1건이다. */
+    public RoaringBitmap lookup(String value) {
+        RoaringBitmap matches = new RoaringBitmap();
+        int hash = hash(value);
+        for (int slot = hash & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash) {
+                int ordinal = slots[slot] - 1;
+                if (matches(store.value(ordinal, field), value)) {
+                    matches.add(ordinal);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private void insert(int hash, int ordinal) {
+        int slot = hash & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        hashes[slot] = hash;
+        slots[slot] = ordinal + 1;
+    }
+
+    private boolean matches(Object stored, String value) {
+        if (stored == null) {
+            return false;
+        }
+        return field.type() == FieldType.TEXT
+                ? stored.toString().equalsIgnoreCase(value)
+                : stored.toString().equals(value);
+    }
+
+    private int hash(String value) {
+        String key = field.type() == FieldType.TEXT ? value.toLowerCase(Locale.ROOT) : value;
+        int h = key.hashCode();
+        // 하위 비트로 슬롯을 고르므로 상위 비트를 섞어 준다
+        return h ^ (h >>> 16);
+    }
+}
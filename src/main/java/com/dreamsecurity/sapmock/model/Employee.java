@@ -8,6 +8,14 @@ import java.util.List;
 import java.util.Set;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_employee_department", columnList = "department"),
+        @Index(name = "idx_employee_birth_date", columnList = "birthDate"),
+        @Index(name = "idx_employee_hire_date", columnList = "hireDate"),
+        @Index(name = "idx_employee_termination_date", columnList = "terminationDate"),
+        @Index(name = "idx_employee_bank_account", columnList = "bankAccount"),
+        @Index(name = "idx_employee_tax_id", columnList = "taxId")
+})
 public class Employee {
 
     @Id
@@ -36,6 +44,7 @@ public class Employee {
     @JoinTable(name = "employee_role",
             joinColumns = @JoinColumn(name = "employee_id"),
             inverseJoinColumns = @JoinColumn(name = "role_id"))
+    @OrderBy("roleId") // 같은 데이터면 항상 같은 순서로 직렬화되도록 (ETag)
     private Set<Role> roles = new HashSet<>();
 
     public Employee() {}
@@ -0,0 +1,90 @@
+package com.dreamsecurity.sapmock.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * 직원 변경 기록 한 줄 (추가만 하는 변경 로그). sequence 가 $deltatoken 의 기준이다.
+ * 사번 하나(employeeId) 또는 숫자 사번 구간(rangeStart ~ rangeEnd, 양끝 포함)을 가리킨다.
+ * 대량 생성은 청크마다 구간 한 줄만 남기므로 로그 크기는 직원 수가 아니라 변경 횟수에 비례한다.
+ */
+@Entity
+@Table(name = "employee_change")
+public class EmployeeChange {
+
+    public enum Kind {
+        /** 추가 또는 변경 (역할 매핑 변경 포함) */
+        UPSERT,
+        /** 삭제 */
+        DELETE
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long sequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Kind kind;
+
+    private String employeeId;
+    private Long rangeStart;
+    private Long rangeEnd;
+
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+
+    public EmployeeChange() {}
+
+    public static EmployeeChange single(Kind kind, String employeeId) {
+        EmployeeChange change = new EmployeeChange();
+        change.kind = kind;
+        change.employeeId = employeeId;
+        change.changedAt = LocalDateTime.now();
+        return change;
+    }
+
+    public static EmployeeChange range(Kind kind, long rangeStart, long rangeEnd) {
+        EmployeeChange change = new EmployeeChange();
+        change.kind = kind;
+        change.rangeStart = rangeStart;
+        change.rangeEnd = rangeEnd;
+        change.changedAt = LocalDateTime.now();
+        return change;
+    }
+
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getEmployeeId() {
+        return employeeId;
+    }
+
+    public Long getRangeStart() {
+        return rangeStart;
+    }
+
+    public Long getRangeEnd() {
+        return rangeEnd;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public boolean isRange() {
+        return employeeId == null;
+    }
+}
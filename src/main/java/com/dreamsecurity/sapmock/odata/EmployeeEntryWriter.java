@@ -0,0 +1,93 @@
+package com.dreamsecurity.sapmock.odata;
+
+import com.dreamsecurity.sapmock.filter.EmployeeField;
+import com.dreamsecurity.sapmock.model.Role;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 직원 행을 ODataJsonWriter 로 쓰면서 roles 탐색 속성을 붙인다.
+ * $expand 가 있으면 batchSize 행씩 모아 그 사번들의 역할을 roleLoader 로 한 번에 읽은 뒤 쓰므로,
+ * 역할 조회 횟수가 직원 수가 아니라 (페이지 크기 / batchSize) 로 고정된다.
+ * $expand 가 없으면 전체 속성을 쓸 때만 roles 를 __deferred 링크로 붙이고 바로 쓴다.
+ */
+public class EmployeeEntryWriter {
+
+    public static final String ROLES_PROPERTY = "roles";
+
+    private final ODataJsonWriter writer;
+    private final List<EmployeeField> fields;
+    private final int idColumn;
+    private final ExpandOption expand;
+    private final boolean withRoles;
+    private final String serviceRoot;
+    private final Function<Collection<String>, Map<String, List<Role>>> roleLoader;
+    private final int batchSize;
+    private final List<Object[]> pending;
+
+    /**
+     * @param fields      출력할 속성. 각 행의 앞쪽 fields.size() 개 값이다
+     * @param idColumn    행에서 employeeId 값의 위치
+     * @param withRoles   roles 탐색 속성을 쓸지 ($select 없이 전체 속성이거나 $expand 가 있을 때)
+     * @param serviceRoot __deferred 링크의 기준 URL (…/EMPLOYEE_BASIC_SRV)
+     */
+    public EmployeeEntryWriter(ODataJsonWriter writer, List<EmployeeField> fields, int idColumn, ExpandOption expand,
+                               boolean withRoles, String serviceRoot,
+                               Function<Collection<String>, Map<String, List<Role>>> roleLoader, int batchSize) {
+        this.writer = writer;
+        this.fields = fields;
+        this.idColumn = idColumn;
+        this.expand = expand;
+        this.withRoles = withRoles || expand.isExpanded();
+        this.serviceRoot = serviceRoot;
+        this.roleLoader = roleLoader;
+        this.batchSize = batchSize;
+        this.pending = new ArrayList<>(expand.isExpanded() ? batchSize : 0);
+    }
+
+    public void write(Object[] row) {
+        if (!expand.isExpanded()) {
+            writeEntry(row, Collections.emptyList());
+            return;
+        }
+        pending.add(row);
+        if (pending.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /** 모아 둔 행을 쓴다. 마지막 행을 넘긴 뒤 반드시 호출한다 */
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<String> ids = new ArrayList<>(pending.size());
+        for (Object[] row : pending) {
+            ids.add((String) row[idColumn]);
+        }
+        Map<String, List<Role>> roles = roleLoader.apply(ids);
+        for (Object[] row : pending) {
+            writeEntry(row, roles.getOrDefault((String) row[idColumn], Collections.emptyList()));
+        }
+        pending.clear();
+    }
+
+    private void writeEntry(Object[] row, List<Role> roles) {
+        if (!withRoles) {
+            writer.writeRow(fields, row);
+            return;
+        }
+        writer.writeRow(fields, row, ROLES_PROPERTY,
+                expand.rolesValue(rolesUri(serviceRoot, (String) row[idColumn]), roles));
+    }
+
+    /** 직원 역할 링크 (GET /Employees/{employeeId}/Roles) */
+    public static String rolesUri(String serviceRoot, String employeeId) {
+        return serviceRoot + "/Employees/" + employeeId + "/Roles";
+    }
+}
@@ -0,0 +1,77 @@
+package com.dreamsecurity.sapmock.odata;
+
+import com.dreamsecurity.sapmock.model.Role;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 해석된 $expand. 직원의 탐색 속성은 roles 하나이고, 역할의 권한(privileges)까지 펼칠 수 있다.
+ * 펼치지 않은 roles 는 OData v2 와 같이 __deferred 링크로만 내보낸다.
+ */
+public enum ExpandOption {
+
+    NONE,
+    /** $expand=Roles: 역할 속성만 */
+    ROLES,
+    /** $expand=Roles/Privileges: 역할과 권한 목록 */
+    ROLES_PRIVILEGES;
+
+    /**
+     * "Roles" 또는 "Roles/Privileges" (쉼표로 여러 개) 를 해석한다. 생략하면 NONE.
+     *
+     * @throws InvalidQueryOptionException 지원하지 않는 경로가 있을 때
+     */
+    public static ExpandOption parse(String expand) {
+        if (expand == null || expand.trim().isEmpty()) {
+            return NONE;
+        }
+        ExpandOption result = NONE;
+        for (String item : expand.split(",")) {
+            String path = item.trim();
+            if (path.equalsIgnoreCase("Roles")) {
+                result = result == NONE ? ROLES : result;
+            } else if (path.equalsIgnoreCase("Roles/Privileges")) {
+                result = ROLES_PRIVILEGES;
+            } else {
+                throw new InvalidQueryOptionException("$expand 오류: Roles, Roles/Privileges 만 지원합니다 - " + expand);
+            }
+        }
+        return result;
+    }
+
+    public boolean isExpanded() {
+        return this != NONE;
+    }
+
+    /**
+     * 직원 한 명의 roles 속성 값.
+     *
+     * @param rolesUri 펼치지 않을 때 __deferred 로 넣을 역할 링크
+     * @param roles    펼칠 때의 역할 목록 (펼치지 않으면 쓰지 않는다)
+     */
+    public Object rolesValue(String rolesUri, Collection<Role> roles) {
+        if (this == NONE) {
+            Map<String, Object> deferred = new LinkedHashMap<>();
+            deferred.put("uri", rolesUri);
+            Map<String, Object> value = new LinkedHashMap<>();
+            value.put("__deferred", deferred);
+            return value;
+        }
+        if (this == ROLES_PRIVILEGES) {
+            return roles;
+        }
+        List<Map<String, Object>> value = new ArrayList<>(roles.size());
+        for (Role role : roles) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("roleId", role.getRoleId());
+            entry.put("roleName", role.getRoleName());
+            entry.put("description", role.getDescription());
+            value.add(entry);
+        }
+        return value;
+    }
+}
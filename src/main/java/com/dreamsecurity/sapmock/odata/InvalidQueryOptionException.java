@@ -0,0 +1,11 @@
+package com.dreamsecurity.sapmock.odata;
+
+/**
+ * 잘못된 OData 시스템 쿼리 옵션($top, $skiptoken 등). 컨트롤러에서 400 으로 응답한다.
+ */
+public class InvalidQueryOptionException extends IllegalArgumentException {
+
+    public InvalidQueryOptionException(String message) {
+        super(message);
+    }
+}
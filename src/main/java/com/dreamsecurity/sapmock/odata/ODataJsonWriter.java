@@ -0,0 +1,137 @@
+package com.dreamsecurity.sapmock.odata;
+
+import com.dreamsecurity.sapmock.filter.EmployeeField;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * OData v2 컬렉션 응답 {"d":{"results":[...]}} 을 JsonGenerator 로 한 건씩 써 내려간다.
+ * 결과 전체를 목록이나 Map 으로 모으지 않으므로 $top 이 커져도 메모리 사용량이 늘지 않는다.
+ */
+public class ODataJsonWriter implements Closeable {
+
+    /** 이 건수마다 출력 스트림으로 내보낸다 */
+    private static final int FLUSH_INTERVAL = 500;
+
+    private final JsonGenerator json;
+    private int written;
+
+    public ODataJsonWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+        this.json = objectMapper.getFactory().createGenerator(out);
+    }
+
+    public void startResults() throws IOException {
+        startResults(null);
+    }
+
+    /** @param inlineCount $inlinecount=allpages 일 때 "__count" 로 넣을 전체 건수, 없으면 null */
+    public void startResults(Long inlineCount) throws IOException {
+        json.writeStartObject();
+        json.writeObjectFieldStart("d");
+        if (inlineCount != null) {
+            // OData v2 JSON 은 __count 를 문자열로 내보낸다
+            json.writeStringField("__count", String.valueOf(inlineCount));
+        }
+        json.writeArrayFieldStart("results");
+    }
+
+    /** 엔티티 하나를 ObjectMapper 설정 그대로 직렬화한다. 람다에서 쓸 수 있도록 IOException 은 감싸서 던진다 */
+    public void writeResult(Object entity) {
+        try {
+            json.writeObject(entity);
+            if (++written % FLUSH_INTERVAL == 0) {
+                json.flush();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * $select 결과 한 건을 쓴다. row 의 앞쪽 fields.size() 개 값을 fields 의 속성명으로 내보낸다.
+     * 값은 엔티티 직렬화와 같은 ObjectMapper 설정(날짜 형식 등)을 따른다.
+     */
+    public void writeRow(List<EmployeeField> fields, Object[] row) {
+        writeRow(fields, row, null, null);
+    }
+
+    /**
+     * writeRow 와 같되, 속성 뒤에 탐색 속성 하나(navigationProperty)를 navigationValue 로 덧붙인다.
+     * navigationProperty 가 null 이면 덧붙이지 않는다.
+     */
+    public void writeRow(List<EmployeeField> fields, Object[] row, String navigationProperty, Object navigationValue) {
+        try {
+            json.writeStartObject();
+            writeProperties(fields, row);
+            if (navigationProperty != null) {
+                json.writeFieldName(navigationProperty);
+                json.writeObject(navigationValue);
+            }
+            json.writeEndObject();
+            if (++written % FLUSH_INTERVAL == 0) {
+                json.flush();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /** 델타 응답의 삭제 표시. 사번과 "__deleted": true 만 쓴다 */
+    public void writeDeleted(String employeeId) {
+        try {
+            json.writeStartObject();
+            json.writeStringField(EmployeeField.EMPLOYEE_ID.property(), employeeId);
+            json.writeBooleanField("__deleted", true);
+            json.writeEndObject();
+            if (++written % FLUSH_INTERVAL == 0) {
+                json.flush();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void writeProperties(List<EmployeeField> fields, Object[] row) throws IOException {
+        for (int i = 0; i < fields.size(); i++) {
+            json.writeFieldName(fields.get(i).property());
+            json.writeObject(row[i]);
+        }
+    }
+
+    public int written() {
+        return written;
+    }
+
+    public void endResults() throws IOException {
+        endResults(null);
+    }
+
+    /** @param nextLink 다음 페이지가 있으면 "__next" 로 넣을 링크, 없으면 null */
+    public void endResults(String nextLink) throws IOException {
+        endResults(nextLink, null);
+    }
+
+    /** @param deltaLink 이후 변경분만 받을 "__delta" 링크, 없으면 null */
+    public void endResults(String nextLink, String deltaLink) throws IOException {
+        json.writeEndArray();
+        if (nextLink != null) {
+            json.writeStringField("__next", nextLink);
+        }
+        if (deltaLink != null) {
+            json.writeStringField("__delta", deltaLink);
+        }
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+
+    @Override
+    public void close() throws IOException {
+        json.close();
+    }
+}
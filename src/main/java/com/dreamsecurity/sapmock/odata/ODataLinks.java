@@ -0,0 +1,75 @@
+package com.dreamsecurity.sapmock.odata;
+
+import javax.servlet.http.HttpServletRequest;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 응답에 넣는 OData 링크(__next 등)를 현재 요청 URL 로부터 만든다.
+ */
+public final class ODataLinks {
+
+    /** 다음 페이지 링크에서 새 값으로 바뀌거나 빠지는 옵션 */
+    private static final Set<String> PAGING_OPTIONS = Set.of("$skip", "$top", "$skiptoken");
+
+    /** 델타 링크에는 $filter, $select 처럼 결과 집합을 정하는 옵션만 남긴다 */
+    private static final Set<String> NON_DELTA_OPTIONS = Set.of("$skip", "$top", "$skiptoken", "$orderby",
+            "$inlinecount", "$deltatoken");
+
+    private ODataLinks() {
+    }
+
+    /**
+     * 현재 요청의 쿼리 옵션을 유지하고 $skip 은 빼고, $skiptoken 과 남은 $top 을 붙인 다음 페이지 링크.
+     *
+     * @param remainingTop 클라이언트가 요청한 $top 중 남은 건수. $top 없이 요청했으면 null
+     */
+    public static String next(HttpServletRequest request, String skipToken, Integer remainingTop) {
+        StringBuilder link = new StringBuilder(request.getRequestURL());
+        char separator = appendOptions(link, request, PAGING_OPTIONS);
+        if (remainingTop != null) {
+            link.append(separator).append("$top=").append(remainingTop);
+            separator = '&';
+        }
+        return link.append(separator).append("$skiptoken=").append(encode(skipToken)).toString();
+    }
+
+    /**
+     * 현재 요청의 $filter, $select 를 유지하고 $deltatoken 을 붙인 델타 링크.
+     * 이 링크로 요청하면 deltaToken 이후 추가/변경/삭제된 직원만 받는다.
+     */
+    public static String delta(HttpServletRequest request, String deltaToken) {
+        StringBuilder link = new StringBuilder(request.getRequestURL());
+        char separator = appendOptions(link, request, NON_DELTA_OPTIONS);
+        return link.append(separator).append("$deltatoken=").append(encode(deltaToken)).toString();
+    }
+
+    /** excluded 를 뺀 쿼리 옵션을 link 에 붙이고, 다음에 쓸 구분자를 돌려준다 */
+    private static char appendOptions(StringBuilder link, HttpServletRequest request, Set<String> excluded) {
+        char separator = '?';
+        for (Map.Entry<String, String[]> param : request.getParameterMap().entrySet()) {
+            if (excluded.contains(param.getKey())) {
+                continue;
+            }
+            for (String value : param.getValue()) {
+                link.append(separator).append(encode(param.getKey())).append('=').append(encode(value));
+                separator = '&';
+            }
+        }
+        return separator;
+    }
+
+    /** 서비스 루트 URL (…/EMPLOYEE_BASIC_SRV). 엔티티 링크의 기준이다 */
+    public static String serviceRoot(HttpServletRequest request) {
+        String url = request.getRequestURL().toString();
+        int end = url.indexOf("/Employees");
+        return end < 0 ? url : url.substring(0, end);
+    }
+
+    private static String encode(String value) {
+        // OData 클라이언트는 공백을 %20 으로 기대한다. '$' 는 옵션 이름에 그대로 둔다
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20").replace("%24", "$");
+    }
+}
@@ -0,0 +1,43 @@
+package com.dreamsecurity.sapmock.odata;
+
+import com.dreamsecurity.sapmock.filter.EmployeeField;
+import com.dreamsecurity.sapmock.sort.EmployeeOrder;
+import com.dreamsecurity.sapmock.sort.SortKey;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * $orderby 해석. "lastName desc,hireDate" 처럼 쉼표로 구분한 속성과 선택적인 asc/desc 를 받는다.
+ */
+public final class OrderByOption {
+
+    private OrderByOption() {
+    }
+
+    /**
+     * @return 생략하면 EmployeeOrder.NATURAL
+     * @throws InvalidQueryOptionException 알 수 없는 속성이나 방향이 있을 때
+     */
+    public static EmployeeOrder parse(String orderBy) {
+        if (orderBy == null || orderBy.trim().isEmpty()) {
+            return EmployeeOrder.NATURAL;
+        }
+        List<SortKey> keys = new ArrayList<>();
+        for (String item : orderBy.split(",")) {
+            String[] parts = item.trim().split("\\s+");
+            EmployeeField field = EmployeeField.fromProperty(parts[0]);
+            if (field == null) {
+                throw new InvalidQueryOptionException("$orderby 오류: 알 수 없는 필드 '" + parts[0] + "' - " + orderBy);
+            }
+            boolean descending = false;
+            if (parts.length == 2 && (parts[1].equalsIgnoreCase("asc") || parts[1].equalsIgnoreCase("desc"))) {
+                descending = parts[1].equalsIgnoreCase("desc");
+            } else if (parts.length != 1) {
+                throw new InvalidQueryOptionException("$orderby 오류: 방향은 asc 또는 desc 여야 합니다 - " + orderBy);
+            }
+            keys.add(new SortKey(field, descending));
+        }
+        return EmployeeOrder.of(keys);
+    }
+}
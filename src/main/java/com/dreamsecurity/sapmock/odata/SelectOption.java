@@ -0,0 +1,73 @@
+package com.dreamsecurity.sapmock.odata;
+
+import com.dreamsecurity.sapmock.filter.EmployeeField;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 해석된 $select. 출력할 속성(fields)과 실제로 읽을 컬럼(columns)을 구분한다.
+ * columns 는 fields 를 같은 순서로 담고, keyset 페이징에 필요한 정렬 키 중 빠진 것을 맨 뒤에 덧붙인다.
+ */
+public final class SelectOption {
+
+    private static final SelectOption ALL = new SelectOption(List.of(EmployeeField.values()), true);
+
+    private final List<EmployeeField> fields;
+    private final boolean all;
+
+    private SelectOption(List<EmployeeField> fields, boolean all) {
+        this.fields = fields;
+        this.all = all;
+    }
+
+    /**
+     * "firstName,lastName" 형식의 $select 를 해석한다. 생략하거나 * 가 있으면 전체 속성.
+     *
+     * @throws InvalidQueryOptionException 알 수 없는 속성이 있을 때
+     */
+    public static SelectOption parse(String select) {
+        if (select == null || select.trim().isEmpty()) {
+            return ALL;
+        }
+        Set<EmployeeField> fields = new LinkedHashSet<>();
+        for (String item : select.split(",")) {
+            String property = item.trim();
+            if (property.equals("*")) {
+                return ALL;
+            }
+            EmployeeField field = EmployeeField.fromProperty(property);
+            if (field == null) {
+                throw new InvalidQueryOptionException("$select 오류: 알 수 없는 필드 '" + property + "' - " + select);
+            }
+            fields.add(field);
+        }
+        return new SelectOption(Collections.unmodifiableList(new ArrayList<>(fields)), false);
+    }
+
+    /** $select 가 없거나 * 이면 true. 이때는 모든 속성과 함께 roles 탐색 속성도 내보낸다 */
+    public boolean isAll() {
+        return all;
+    }
+
+    /** 출력할 속성. 전체 선택이면 EmployeeField 전체 (엔티티 직렬화와 같은 순서) */
+    public List<EmployeeField> fields() {
+        return fields;
+    }
+
+    /**
+     * 조회할 컬럼. 앞쪽 fields().size() 개가 출력할 속성이고, 그 뒤는 required 중 선택되지 않은 필드다.
+     */
+    public List<EmployeeField> columns(List<EmployeeField> required) {
+        List<EmployeeField> columns = new ArrayList<>(fields);
+        for (EmployeeField field : required) {
+            if (!columns.contains(field)) {
+                columns.add(field);
+            }
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,128 @@
+package com.dreamsecurity.sapmock.odata;
+
+import com.dreamsecurity.sapmock.filter.FieldType;
+import com.dreamsecurity.sapmock.sort.EmployeeOrder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 서버 페이징용 $skiptoken. 그 페이지를 만든 $filter, $orderby 와 마지막으로 보낸 행의 정렬 키 값(커서)을 담는다.
+ * 첫 페이지를 읽기 직전의 변경 기록 번호도 담아, 마지막 페이지의 __delta 링크가 읽기 도중의 변경을 놓치지 않게 한다.
+ * 정렬 키는 항상 employeeId 로 끝나므로 커서의 마지막 값은 마지막 사번이다.
+ * 클라이언트에게는 불투명한 문자열이며, 다음 페이지는 이 커서 다음부터 keyset 으로 이어서 읽는다.
+ * 각 부분을 base64url 로 인코딩해 '.' 으로 잇고, null 값은 '~' 로 나타낸다.
+ */
+public final class SkipToken {
+
+    private static final String SEPARATOR = ".";
+    private static final String NULL = "~";
+
+    private final String filter;
+    private final String orderBy;
+    private final long sequence;
+    private final List<String> cursor;
+
+    public SkipToken(String filter, String orderBy, long sequence, Object[] cursor) {
+        this(filter, orderBy, sequence, toStrings(cursor));
+    }
+
+    private SkipToken(String filter, String orderBy, long sequence, List<String> cursor) {
+        this.filter = filter == null ? "" : filter;
+        this.orderBy = orderBy == null ? "" : orderBy;
+        this.sequence = sequence;
+        this.cursor = cursor;
+    }
+
+    public String filter() {
+        return filter;
+    }
+
+    public String orderBy() {
+        return orderBy;
+    }
+
+    /** 첫 페이지를 읽기 직전의 변경 기록 번호 */
+    public long sequence() {
+        return sequence;
+    }
+
+    /** 토큰을 만든 요청과 같은 $filter, $orderby 인지 */
+    public boolean matches(String filter, String orderBy) {
+        return Objects.equals(this.filter, filter == null ? "" : filter)
+                && Objects.equals(this.orderBy, orderBy == null ? "" : orderBy);
+    }
+
+    /**
+     * 커서를 order 의 키 타입으로 되돌린다.
+     *
+     * @throws InvalidQueryOptionException 키 개수나 값 형식이 맞지 않을 때
+     */
+    public Object[] cursor(EmployeeOrder order) {
+        if (cursor.size() != order.keys().size()) {
+            throw new InvalidQueryOptionException("잘못된 $skiptoken 입니다");
+        }
+        Object[] values = new Object[cursor.size()];
+        for (int i = 0; i < values.length; i++) {
+            String value = cursor.get(i);
+            if (value != null && order.keys().get(i).field().type() == FieldType.DATE) {
+                try {
+                    values[i] = LocalDate.parse(value);
+                } catch (DateTimeParseException ex) {
+                    throw new InvalidQueryOptionException("잘못된 $skiptoken 입니다");
+                }
+            } else {
+                values[i] = value;
+            }
+        }
+        return values;
+    }
+
+    public String encode() {
+        StringBuilder sb = new StringBuilder(encodePart(filter)).append(SEPARATOR).append(encodePart(orderBy))
+                .append(SEPARATOR).append(sequence);
+        for (String value : cursor) {
+            sb.append(SEPARATOR).append(value == null ? NULL : encodePart(value));
+        }
+        return sb.toString();
+    }
+
+    public static SkipToken decode(String token) {
+        String[] parts = token.split("\\.", -1);
+        if (parts.length < 4) {
+            throw new InvalidQueryOptionException("잘못된 $skiptoken 입니다: " + token);
+        }
+        try {
+            long sequence = Long.parseLong(parts[2]);
+            List<String> cursor = new ArrayList<>(parts.length - 3);
+            for (int i = 3; i < parts.length; i++) {
+                cursor.add(parts[i].equals(NULL) ? null : decodePart(parts[i]));
+            }
+            return new SkipToken(decodePart(parts[0]), decodePart(parts[1]), sequence, Collections.unmodifiableList(cursor));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidQueryOptionException("잘못된 $skiptoken 입니다: " + token);
+        }
+    }
+
+    private static List<String> toStrings(Object[] cursor) {
+        List<String> values = new ArrayList<>(cursor.length);
+        for (Object value : cursor) {
+            values.add(value == null ? null : value.toString());
+        }
+        return Collections.unmodifiableList(values);
+    }
+
+    private static String encodePart(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodePart(String part) {
+        return new String(Base64.getUrlDecoder().decode(part), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,103 @@
+package com.dreamsecurity.sapmock.repository;
+
+import com.dreamsecurity.sapmock.model.Employee;
+import com.dreamsecurity.sapmock.model.Role;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 대량 생성 전용 저장 경로.
+ * JPA 의 deleteAll()/saveAll() 은 행마다 select + merge 를 실행하므로, 여기서는 Hibernate 를 거치지 않고
+ * TRUNCATE 와 JDBC 배치 insert 로 employee / employee_role 테이블을 직접 채운다.
+ * Hibernate 를 거치지 않으므로 spring.jpa.show-sql 로그도 남지 않는다.
+ */
+@Repository
+public class EmployeeBulkWriter {
+
+    private static final String INSERT_EMPLOYEE = "insert into employee (employee_id, first_name, last_name, middle_name, "
+            + "birth_date, gender, nationality, marital_status, position, job_title, department, department_name, "
+            + "hire_date, termination_date, work_email, work_phone, mobile_phone, address, bank_account, tax_id) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_EMPLOYEE_ROLE = "insert into employee_role (employee_id, role_id) values (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public EmployeeBulkWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * employee_role, employee 를 비운다.
+     * H2 는 다른 테이블이 참조 중인 테이블의 TRUNCATE 를 거부하므로, employee_role 을 먼저 비운 뒤 그 동안만 employee 의 참조 무결성 검사를 끈다.
+     */
+    public void truncate() {
+        jdbcTemplate.execute("truncate table employee_role");
+        jdbcTemplate.execute("alter table employee set referential_integrity false");
+        try {
+            jdbcTemplate.execute("truncate table employee");
+        } finally {
+            jdbcTemplate.execute("alter table employee set referential_integrity true");
+        }
+    }
+
+    /**
+     * 직원과 직원-역할 매핑을 배치 insert 한다. 호출 측 트랜잭션 안에서 실행된다.
+     * 역할(Role)은 이미 저장되어 있어야 한다.
+     */
+    public void insert(List<Employee> employees) {
+        jdbcTemplate.batchUpdate(INSERT_EMPLOYEE, employees, employees.size(), EmployeeBulkWriter::bindEmployee);
+
+        List<Object[]> roleRows = new ArrayList<>(employees.size() * 2);
+        for (Employee employee : employees) {
+            for (Role role : employee.getRoles()) {
+                roleRows.add(new Object[]{employee.getEmployeeId(), role.getRoleId()});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_EMPLOYEE_ROLE, roleRows, roleRows.size(), (ps, row) -> {
+            ps.setString(1, (String) row[0]);
+            ps.setString(2, (String) row[1]);
+        });
+    }
+
+    private static void bindEmployee(PreparedStatement ps, Employee e) throws SQLException {
+        ps.setString(1, e.getEmployeeId());
+        ps.setString(2, e.getFirstName());
+        ps.setString(3, e.getLastName());
+        ps.setString(4, e.getMiddleName());
+        setDate(ps, 5, e.getBirthDate());
+        ps.setString(6, e.getGender());
+        ps.setString(7, e.getNationality());
+        ps.setString(8, e.getMaritalStatus());
+        ps.setString(9, e.getPosition());
+        ps.setString(10, e.getJobTitle());
+        ps.setString(11, e.getDepartment());
+        ps.setString(12, e.getDepartmentName());
+        setDate(ps, 13, e.getHireDate());
+        setDate(ps, 14, e.getTerminationDate());
+        ps.setString(15, e.getWorkEmail());
+        ps.setString(16, e.getWorkPhone());
+        ps.setString(17, e.getMobilePhone());
+        ps.setString(18, e.getAddress());
+        ps.setString(19, e.getBankAccount());
+        ps.setString(20, e.getTaxId());
+    }
+
+    private static void setDate(PreparedStatement ps, int index, LocalDate date) throws SQLException {
+        if (date == null) {
+            ps.setNull(index, Types.DATE);
+        } else {
+            ps.setDate(index, Date.valueOf(date));
+        }
+    }
+}
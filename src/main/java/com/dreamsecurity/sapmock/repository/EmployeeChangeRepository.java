@@ -0,0 +1,16 @@
+package com.dreamsecurity.sapmock.repository;
+
+import com.dreamsecurity.sapmock.model.EmployeeChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface EmployeeChangeRepository extends JpaRepository<EmployeeChange, Long> {
+
+    /** 마지막 변경 기록 번호. 기록이 없으면 0 */
+    @Query("select coalesce(max(c.sequence), 0) from EmployeeChange c")
+    long currentSequence();
+
+    List<EmployeeChange> findBySequenceGreaterThanAndSequenceLessThanEqualOrderBySequence(long after, long upTo);
+}
@@ -1,7 +1,29 @@
 package com.dreamsecurity.sapmock.repository;
 
 import com.dreamsecurity.sapmock.model.Employee;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface EmployeeRepository extends JpaRepository<Employee, String> {
-}
\ No newline at end of file
+import java.util.Collection;
+import java.util.List;
+
+public interface EmployeeRepository extends JpaRepository<Employee, String>,
+        JpaSpecificationExecutor<Employee>, EmployeeRepositoryCustom {
+
+    /** 역할까지 한 번에 읽어 영속성 컨텍스트 밖에서도 사용할 수 있는 직원 목록 */
+    @EntityGraph(attributePaths = "roles", type = EntityGraph.EntityGraphType.LOAD)
+    @Query("select distinct e from Employee e order by e.employeeId")
+    List<Employee> findAllWithRoles();
+
+    @EntityGraph(attributePaths = "roles", type = EntityGraph.EntityGraphType.LOAD)
+    @Query("select distinct e from Employee e where e.employeeId in :employeeIds")
+    List<Employee> findAllWithRolesByEmployeeIdIn(@Param("employeeIds") Collection<String> employeeIds);
+
+    /** 직원-역할 매핑만 (사번, 역할 ID) 쌍으로. 역할 엔티티와 권한은 읽지 않는다 */
+    @Query("select e.employeeId, r.roleId from Employee e join e.roles r where e.employeeId in :employeeIds "
+            + "order by e.employeeId, r.roleId")
+    List<Object[]> findRoleIdsByEmployeeIdIn(@Param("employeeIds") Collection<String> employeeIds);
+}
@@ -0,0 +1,24 @@
+package com.dreamsecurity.sapmock.repository;
+
+import com.dreamsecurity.sapmock.model.Employee;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface EmployeeRepositoryCustom {
+
+    /**
+     * 조건에 맞는 직원 중 요청한 구간(pageable 의 offset, 크기, 정렬)에서 properties 컬럼만 SELECT 해
+     * properties 순서의 배열로, JDBC 커서로 fetchSize 건씩 읽는 Stream 으로 돌려준다 ($select).
+     * JpaSpecificationExecutor#findAll(Specification, Pageable) 과 달리 전체 건수 COUNT 쿼리를 실행하지 않으며,
+     * 영속성 컨텍스트에 엔티티가 쌓이지 않는다. 트랜잭션 안에서 소비하고 닫아야 한다.
+     */
+    Stream<Object[]> streamRows(Specification<Employee> spec, Pageable pageable, List<String> properties, int fetchSize);
+
+    /**
+     * 전체 직원-역할 매핑을 (사번, 역할 ID) 쌍으로 사번, 역할 ID 순서로 읽는다. 트랜잭션 안에서 소비하고 닫아야 한다.
+     */
+    Stream<Object[]> streamRoleIds(int fetchSize);
+}
@@ -0,0 +1,59 @@
+package com.dreamsecurity.sapmock.repository;
+
+import com.dreamsecurity.sapmock.model.Employee;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Selection;
+import javax.persistence.criteria.Root;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class EmployeeRepositoryImpl implements EmployeeRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<Object[]> streamRows(Specification<Employee> spec, Pageable pageable, List<String> properties, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Employee> root = query.from(Employee.class);
+
+        applySpecification(spec, root, query, cb);
+        query.multiselect(properties.stream().<Selection<?>>map(root::get).toArray(Selection[]::new));
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .setHint("org.hibernate.fetchSize", fetchSize)
+                .getResultStream()
+                .map(Tuple::toArray);
+    }
+
+    @Override
+    public Stream<Object[]> streamRoleIds(int fetchSize) {
+        return entityManager.createQuery("select e.employeeId, r.roleId from Employee e join e.roles r "
+                        + "order by e.employeeId, r.roleId", Object[].class)
+                .setHint("org.hibernate.fetchSize", fetchSize)
+                .getResultStream();
+    }
+
+    private static void applySpecification(Specification<Employee> spec, Root<Employee> root,
+                                           CriteriaQuery<?> query, CriteriaBuilder cb) {
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+    }
+}
@@ -2,8 +2,10 @@ package com.dreamsecurity.sapmock.security;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.ObjectPostProcessor;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.header.HeaderWriterFilter;
 
 @Configuration
 public class SecurityConfig {
@@ -19,6 +21,15 @@ public class SecurityConfig {
                 .and()
                 .httpBasic(); // ✅ Basic 인증
 
+        // ✅ 스트리밍 응답은 비동기 스레드에서 커밋되므로, 보안 헤더를 요청 스레드에서 미리 써 둔다
+        http.headers().addObjectPostProcessor(new ObjectPostProcessor<HeaderWriterFilter>() {
+            @Override
+            public <O extends HeaderWriterFilter> O postProcess(O filter) {
+                filter.setShouldWriteHeadersEagerly(true);
+                return filter;
+            }
+        });
+
         return http.build();
     }
 }
@@ -0,0 +1,106 @@
+package com.dreamsecurity.sapmock.service;
+
+import com.dreamsecurity.sapmock.authorization.AuthorizationCheck;
+import com.dreamsecurity.sapmock.authorization.AuthorizationTable;
+import com.dreamsecurity.sapmock.model.Employee;
+import com.dreamsecurity.sapmock.model.Role;
+import com.dreamsecurity.sapmock.store.EmployeeDataset;
+import com.dreamsecurity.sapmock.store.EmployeeStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CheckAuthorization 판정. 메모리 엔진에서는 사번 → 순번 → 비트셋 조회만으로 끝나며 객체를 만들지 않는다.
+ */
+@Service
+public class AuthorizationService {
+
+    private final EmployeeQueryService queryService;
+
+    @Autowired
+    public AuthorizationService(EmployeeQueryService queryService) {
+        this.queryService = queryService;
+    }
+
+    /**
+     * 직원이 (object, field=value) 권한을 가졌는지. 직원이 없으면 null.
+     * 권한 표와 직원 데이터셋은 같은 스냅샷에서 읽으므로, 판정 도중 재적재되어도 서로 다른 버전을 섞지 않는다.
+     */
+    public Boolean check(DatasetSnapshot snapshot, String employeeId, String object, String field, String value) {
+        AuthorizationTable table = snapshot.authorization();
+        int privilegeId = table.catalog().idOf(object, field, value);
+
+        EmployeeDataset dataset = snapshot.dataset();
+        long[] bits = dataset != null
+                ? bitsOf(table, dataset, employeeId)
+                : resolveBits(snapshot, Collections.singleton(employeeId)).get(employeeId);
+        return bits == null ? null : AuthorizationTable.has(bits, privilegeId);
+    }
+
+    /**
+     * 여러 건을 한 번에 판정한다. 결과는 요청과 같은 순서이며, 직원이 없는 건은 null.
+     * 직원별로 묶어 권한 비트셋을 한 번만 구한 뒤, 직원 묶음 단위로 병렬 평가한다.
+     */
+    public Boolean[] checkAll(DatasetSnapshot snapshot, List<AuthorizationCheck> checks) {
+        Map<String, List<Integer>> byEmployee = new LinkedHashMap<>();
+        for (int i = 0; i < checks.size(); i++) {
+            byEmployee.computeIfAbsent(checks.get(i).getEmployeeId(), k -> new ArrayList<>()).add(i);
+        }
+
+        AuthorizationTable table = snapshot.authorization();
+        Map<String, long[]> bitsByEmployee = resolveBits(snapshot, byEmployee.keySet());
+
+        Boolean[] results = new Boolean[checks.size()];
+        byEmployee.entrySet().parallelStream().forEach(entry -> {
+            long[] bits = bitsByEmployee.get(entry.getKey());
+            for (int index : entry.getValue()) {
+                if (bits != null) {
+                    AuthorizationCheck check = checks.get(index);
+                    int privilegeId = table.catalog().idOf(check.getObject(), check.getField(), check.getValue());
+                    results[index] = AuthorizationTable.has(bits, privilegeId);
+                }
+            }
+        });
+        return results;
+    }
+
+    /** 사번별 권한 비트셋. 없는 직원은 결과에 넣지 않는다 */
+    private Map<String, long[]> resolveBits(DatasetSnapshot snapshot, Set<String> employeeIds) {
+        Map<String, long[]> bitsByEmployee = new ConcurrentHashMap<>();
+        AuthorizationTable table = snapshot.authorization();
+        EmployeeDataset dataset = snapshot.dataset();
+        if (dataset != null) {
+            employeeIds.parallelStream().forEach(employeeId -> {
+                long[] bits = bitsOf(table, dataset, employeeId);
+                if (bits != null) {
+                    bitsByEmployee.put(employeeId, bits);
+                }
+            });
+            return bitsByEmployee;
+        }
+        for (Employee employee : queryService.findAllWithRoles(snapshot, employeeIds)) {
+            bitsByEmployee.put(employee.getEmployeeId(), table.bitsOf(employee));
+        }
+        return bitsByEmployee;
+    }
+
+    /** 데이터셋 직원 한 명의 권한 비트셋. 없는 직원이면 null */
+    private static long[] bitsOf(AuthorizationTable table, EmployeeDataset dataset, String employeeId) {
+        EmployeeStore store = dataset.store();
+        if (table.covers(store)) {
+            int ordinal = store.ordinalOf(employeeId);
+            return ordinal < 0 ? null : table.bitsOf(ordinal);
+        }
+        // 직원 표가 없는 데이터셋(virtual, offheap)은 직원 전체를 만들지 않고 역할만 읽는다
+        Set<Role> roles = dataset.findRolesById(employeeId);
+        return roles == null ? null : table.bitsOf(roles);
+    }
+}
@@ -0,0 +1,63 @@
+package com.dreamsecurity.sapmock.service;
+
+import com.dreamsecurity.sapmock.authorization.AuthorizationTable;
+import com.dreamsecurity.sapmock.model.Role;
+import com.dreamsecurity.sapmock.store.EmployeeDataset;
+
+import java.util.Map;
+
+/**
+ * 한 시점의 조회용 데이터: 직원 데이터셋(인덱스 포함), 역할표, 권한 비트셋 표와 그 버전.
+ * 불변이며, 재적재하면 새 스냅샷을 다 만든 뒤 참조 하나만 바꿔 공개한다 (EmployeeDatasetService).
+ * 요청은 시작할 때 스냅샷을 하나 잡아 끝까지 그것으로 응답하므로, 도중에 재적재되어도 한 응답 안에서 버전이 섞이지 않는다.
+ */
+public final class DatasetSnapshot {
+
+    private final long version;
+    private final long sequence;
+    private final EmployeeDataset dataset;
+    private final Map<String, Role> roles;
+    private final AuthorizationTable authorization;
+
+    DatasetSnapshot(long version, long sequence, EmployeeDataset dataset,
+                    Map<String, Role> roles, AuthorizationTable authorization) {
+        this.version = version;
+        this.sequence = sequence;
+        this.dataset = dataset;
+        this.roles = roles;
+        this.authorization = authorization;
+    }
+
+    /** 데이터 버전 (DatasetVersion). ETag 와 건수 캐시 키에 쓴다 */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * 데이터셋에 반영된 마지막 변경 기록 번호 (EmployeeChangeLog).
+     * 적재 전에 읽어 두므로 데이터셋은 적어도 이 번호까지의 변경을 담고 있다.
+     */
+    public long sequence() {
+        return sequence;
+    }
+
+    /** 직원 데이터셋. jpa 엔진이거나 아직 적재 전이면 null */
+    public EmployeeDataset dataset() {
+        return dataset;
+    }
+
+    /** 역할 ID → 역할(권한 목록 포함) 표 */
+    public Map<String, Role> roles() {
+        return roles;
+    }
+
+    /** 권한 비트셋 표. 메모리 엔진이면 이 스냅샷 데이터셋의 직원별 비트셋까지 포함한다 */
+    public AuthorizationTable authorization() {
+        return authorization;
+    }
+
+    /** 버전만 다른 같은 스냅샷 (jpa 엔진처럼 조회가 DB 를 직접 볼 때) */
+    DatasetSnapshot withVersion(long version) {
+        return version == this.version ? this : new DatasetSnapshot(version, sequence, dataset, roles, authorization);
+    }
+}
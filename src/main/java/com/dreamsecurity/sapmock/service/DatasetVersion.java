@@ -0,0 +1,29 @@
+package com.dreamsecurity.sapmock.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 직원 데이터의 버전. 생성/저장으로 데이터가 바뀌거나 메모리 데이터셋을 다시 적재할 때마다 증가한다.
+ * 재기동하면 0 부터 다시 시작하므로, 외부에 내보내는 태그에는 기동 시각을 함께 넣는다.
+ */
+@Component
+public class DatasetVersion {
+
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+
+    public long current() {
+        return version.get();
+    }
+
+    public long increment() {
+        return version.incrementAndGet();
+    }
+
+    /** 재기동 전후에도 겹치지 않는 버전 문자열 (ETag 용). 요청이 잡은 스냅샷의 버전처럼 지나간 버전일 수 있다 */
+    public String tag(long version) {
+        return bootId + "-" + version;
+    }
+}
@@ -0,0 +1,83 @@
+package com.dreamsecurity.sapmock.service;
+
+import com.dreamsecurity.sapmock.model.EmployeeChange;
+import com.dreamsecurity.sapmock.repository.EmployeeChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 직원 및 직원-역할 매핑 변경 로그 ($deltatoken).
+ * 변경을 일으키는 쪽이 같은 트랜잭션 안에서 기록하므로, 커밋된 데이터와 로그가 어긋나지 않는다.
+ * 로그에는 무엇이 바뀌었는지(사번)만 남기고, 델타 응답은 그 사번들의 현재 상태로 만든다
+ * (지금 있으면 변경된 레코드, 없으면 삭제 표시).
+ */
+@Service
+public class EmployeeChangeLog {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeChangeLog.class);
+
+    private final EmployeeChangeRepository changeRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public EmployeeChangeLog(EmployeeChangeRepository changeRepository, JdbcTemplate jdbcTemplate) {
+        this.changeRepository = changeRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** 마지막 변경 기록 번호. 기록이 없으면 0 */
+    public long currentSequence() {
+        return changeRepository.currentSequence();
+    }
+
+    /** 사번들의 추가/변경을 기록한다. 연속된 숫자 사번은 구간 한 줄로 남는다 */
+    public void recordUpserted(Collection<String> employeeIds) {
+        EmployeeIdSet.Builder ids = EmployeeIdSet.builder();
+        employeeIds.forEach(ids::add);
+        record(EmployeeChange.Kind.UPSERT, ids.build());
+    }
+
+    /** 지금 저장된 직원 전체의 삭제를 기록한다. 테이블을 비우기 직전에 같은 트랜잭션에서 호출한다 */
+    public void recordAllDeleted() {
+        EmployeeIdSet.Builder ids = EmployeeIdSet.builder();
+        jdbcTemplate.query("select employee_id from employee", (RowCallbackHandler) rs -> ids.add(rs.getString(1)));
+        EmployeeIdSet deleted = ids.build();
+        record(EmployeeChange.Kind.DELETE, deleted);
+        log.info("[changeLog] 직원 {}명 삭제 기록 (구간 {}개)", deleted.size(), deleted.rangeCount());
+    }
+
+    /** 기록 번호 after 초과 upTo 이하에서 추가/변경/삭제된 사번 전체 */
+    public EmployeeIdSet changedBetween(long after, long upTo) {
+        EmployeeIdSet.Builder ids = EmployeeIdSet.builder();
+        for (EmployeeChange change : changeRepository.findBySequenceGreaterThanAndSequenceLessThanEqualOrderBySequence(after, upTo)) {
+            if (change.isRange()) {
+                ids.addRange(change.getRangeStart(), change.getRangeEnd());
+            } else {
+                ids.add(change.getEmployeeId());
+            }
+        }
+        return ids.build();
+    }
+
+    private void record(EmployeeChange.Kind kind, EmployeeIdSet ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<EmployeeChange> changes = new ArrayList<>(ids.rangeCount() + ids.others().size());
+        for (int i = 0; i < ids.rangeCount(); i++) {
+            changes.add(EmployeeChange.range(kind, ids.rangeStart(i), ids.rangeEnd(i)));
+        }
+        for (String employeeId : ids.others()) {
+            changes.add(EmployeeChange.single(kind, employeeId));
+        }
+        changeRepository.saveAll(changes);
+    }
+}
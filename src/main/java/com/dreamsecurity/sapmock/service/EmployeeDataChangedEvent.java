@@ -0,0 +1,17 @@
+package com.dreamsecurity.sapmock.service;
+
+/**
+ * 직원 데이터가 생성/변경되었음을 알리는 이벤트. 커밋 이후 메모리 데이터셋과 인덱스를 다시 만든다.
+ */
+public class EmployeeDataChangedEvent {
+
+    private final String reason;
+
+    public EmployeeDataChangedEvent(String reason) {
+        this.reason = reason;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,310 @@
+package com.dreamsecurity.sapmock.service;
+
+import com.dreamsecurity.sapmock.authorization.AuthorizationTable;
+import com.dreamsecurity.sapmock.filter.EmployeeField;
+import com.dreamsecurity.sapmock.model.Employee;
+import com.dreamsecurity.sapmock.model.Role;
+import com.dreamsecurity.sapmock.repository.EmployeeRepository;
+import com.dreamsecurity.sapmock.repository.OffsetPageRequest;
+import com.dreamsecurity.sapmock.repository.RoleRepository;
+import com.dreamsecurity.sapmock.store.ColumnarEmployeeStore;
+import com.dreamsecurity.sapmock.store.EmployeeDataset;
+import com.dreamsecurity.sapmock.store.EmployeeStore;
+import com.dreamsecurity.sapmock.store.EmployeeStoreBuilder;
+import com.dreamsecurity.sapmock.store.HeapEmployeeStore;
+import com.dreamsecurity.sapmock.store.OffHeapEmployeeStore;
+import com.dreamsecurity.sapmock.store.SnapshotFile;
+import com.dreamsecurity.sapmock.store.StoreEngine;
+import com.dreamsecurity.sapmock.store.VirtualEmployeeStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * 조회용 데이터셋 스냅샷(DatasetSnapshot)을 적재하고 교체한다.
+ * 새 스냅샷을 다 만든 뒤에 AtomicReference 하나만 바꾸므로, 재적재 중에도 조회는 잠금 없이 이전 스냅샷으로 계속 응답한다.
+ * 직원 생성 중에는 DB 에 일부만 들어 있으므로 재적재를 미루고, 생성이 끝날 때 한 번 적재한다.
+ */
+@Service
+public class EmployeeDatasetService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeDatasetService.class);
+
+    private final EmployeeRepository employeeRepository;
+    private final RoleRepository roleRepository;
+    private final EmployeeGenerationService generationService;
+    private final StoreEngine engine;
+    private final DatasetVersion version;
+    private final EmployeeChangeLog changeLog;
+    private final TransactionTemplate readOnlyTransaction;
+    private final AtomicReference<DatasetSnapshot> snapshot = new AtomicReference<>();
+
+    @Value("${sap.virtual.count:50000000}")
+    private int virtualCount;
+
+    @Value("${sap.jpa.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${sap.snapshot.path:./data/employees.snapshot}")
+    private String snapshotPath;
+
+    @Value("${sap.snapshot.load-on-startup:true}")
+    private boolean loadSnapshotOnStartup;
+
+    @Autowired
+    public EmployeeDatasetService(EmployeeRepository employeeRepository,
+                                  RoleRepository roleRepository,
+                                  EmployeeGenerationService generationService,
+                                  DatasetVersion version,
+                                  EmployeeChangeLog changeLog,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${sap.store.engine:memory}") String engine) {
+        this.employeeRepository = employeeRepository;
+        this.roleRepository = roleRepository;
+        this.generationService = generationService;
+        this.engine = StoreEngine.from(engine);
+        this.version = version;
+        this.changeLog = changeLog;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public StoreEngine engine() {
+        return engine;
+    }
+
+    /**
+     * 현재 공개된 스냅샷. 한 요청 안에서는 처음 받은 스냅샷을 계속 써야 응답이 한 버전으로 일관된다.
+     * 첫 적재 전이면 직원 데이터셋 없이 역할/권한 표만 든 스냅샷을 공개한다 (조회는 DB 로).
+     * jpa 엔진은 조회가 DB 를 직접 보므로, 버전도 청크 커밋/저장마다 오르는 현재 값으로 돌려준다.
+     */
+    public DatasetSnapshot snapshot() {
+        DatasetSnapshot published = snapshot.get();
+        if (published == null) {
+            snapshot.compareAndSet(null, build(roleRepository.findAll(), null, 0, version.current()));
+            published = snapshot.get();
+        }
+        return engine == StoreEngine.JPA ? published.withVersion(version.current()) : published;
+    }
+
+    /** 스냅샷 버전을 재기동 전후에도 겹치지 않는 문자열로 (ETag 용) */
+    public String tag(DatasetSnapshot snapshot) {
+        return version.tag(snapshot.version());
+    }
+
+    public synchronized void reload() {
+        if (generationService.isGenerating()) {
+            log.info("[dataset] 직원 생성 중 - 생성이 끝난 뒤 재적재");
+            return;
+        }
+        long sequence = changeLog.currentSequence();
+        List<Role> allRoles = roleRepository.findAll();
+        EmployeeDataset dataset = null;
+        if (engine == StoreEngine.VIRTUAL) {
+            long seed = generationService.defaultSeed();
+            dataset = EmployeeDataset.unindexed(new VirtualEmployeeStore(generationService.newFactory(seed), virtualCount));
+            log.info("[dataset] 가상 데이터셋 준비 완료 (seed={}, 직원 {}명)", seed, virtualCount);
+        } else if (engine == StoreEngine.MEMORY) {
+            long start = System.currentTimeMillis();
+            List<Employee> employees = employeeRepository.findAllWithRoles();
+            dataset = new EmployeeDataset(new HeapEmployeeStore(employees));
+            log.info("[dataset] 직원 {}명 메모리 적재 및 인덱스 생성 완료 ({}ms)",
+                    employees.size(), System.currentTimeMillis() - start);
+        } else if (engine == StoreEngine.COLUMNAR) {
+            long start = System.currentTimeMillis();
+            ColumnarEmployeeStore store = loadSorted(new ColumnarEmployeeStore.Builder(), roleTable(allRoles));
+            dataset = new EmployeeDataset(store);
+            log.info("[dataset] 직원 {}명 컬럼 적재 및 인덱스 생성 완료 ({}ms)",
+                    store.size(), System.currentTimeMillis() - start);
+        } else if (engine == StoreEngine.OFFHEAP) {
+            long start = System.currentTimeMillis();
+            OffHeapEmployeeStore store = loadSorted(new OffHeapEmployeeStore.Builder(), roleTable(allRoles));
+            dataset = EmployeeDataset.unindexed(store);
+            log.info("[dataset] 직원 {}명 힙 밖 적재 완료 ({}MB, {}ms)",
+                    store.size(), store.offHeapBytes() >> 20, System.currentTimeMillis() - start);
+        }
+        publish(build(allRoles, dataset, sequence, version.increment()));
+    }
+
+    private void publish(DatasetSnapshot next) {
+        DatasetSnapshot previous = snapshot.getAndSet(next);
+        log.info("[dataset] 스냅샷 버전 {} 공개 (이전 {})", next.version(), previous == null ? "-" : previous.version());
+    }
+
+    /**
+     * 기동 시 스냅샷 파일(sap.snapshot.path)이 있으면 DB 대신 그 파일로 데이터셋을 공개한다.
+     * 파일은 매핑만 하므로 offheap 엔진은 직원 수와 관계없이 바로 뜨고, memory/columnar 엔진은 DB 를 거치지 않고 메모리에서 다시 만든다.
+     * 파일을 저장한 뒤 DB 에 변경이 있었으면(변경 기록 번호가 더 크면) 오래된 파일이므로 쓰지 않는다.
+     * 파일을 읽지 못해도 기동은 계속하고 DB 에서 적재한다.
+     *
+     * @return 스냅샷 파일로 적재했으면 true
+     */
+    public synchronized boolean loadSnapshotFile() {
+        if (!loadSnapshotOnStartup || engine == StoreEngine.JPA || engine == StoreEngine.VIRTUAL) {
+            return false;
+        }
+        Path path = Paths.get(snapshotPath);
+        if (!Files.isRegularFile(path)) {
+            return false;
+        }
+        long start = System.currentTimeMillis();
+        SnapshotFile file;
+        try {
+            file = SnapshotFile.read(path);
+        } catch (IOException ex) {
+            log.warn("[dataset] 스냅샷 파일 {} 을 읽지 못해 DB 에서 적재: {}", path, ex.getMessage());
+            return false;
+        }
+        long sequence = changeLog.currentSequence();
+        if (sequence > file.sequence()) {
+            log.info("[dataset] 스냅샷 파일 {} 이후 DB 가 변경됨 (변경 기록 {} > {}) - DB 에서 적재",
+                    path, sequence, file.sequence());
+            return false;
+        }
+        OffHeapEmployeeStore mapped = file.store();
+        EmployeeDataset dataset;
+        if (engine == StoreEngine.OFFHEAP) {
+            dataset = EmployeeDataset.unindexed(mapped);
+        } else if (engine == StoreEngine.COLUMNAR) {
+            dataset = new EmployeeDataset(new ColumnarEmployeeStore.Builder().addAll(mapped)
+                    .build(roleTable(file.roles())));
+        } else {
+            dataset = new EmployeeDataset(new HeapEmployeeStore(IntStream.range(0, mapped.size())
+                    .mapToObj(mapped::get)
+                    .collect(Collectors.toList())));
+        }
+        log.info("[dataset] 스냅샷 파일 {} 에서 직원 {}명 적재 ({}ms)", path, mapped.size(),
+                System.currentTimeMillis() - start);
+        publish(build(file.roles(), dataset, file.sequence(), version.increment()));
+        return true;
+    }
+
+    /**
+     * 현재 공개된 데이터셋을 스냅샷 파일(sap.snapshot.path)로 저장한다.
+     * 임시 파일에 다 쓴 뒤 바꿔치기하므로 도중에 실패해도 기존 파일은 그대로다.
+     * jpa 엔진이거나 아직 적재 전이면 DB 에서 직원을 사번 순으로 읽어 저장한다.
+     *
+     * @throws IllegalStateException virtual 엔진이거나 DB 에서 읽어야 하는데 직원 생성 중일 때
+     */
+    public synchronized SnapshotFileInfo saveSnapshotFile() throws IOException {
+        if (engine == StoreEngine.VIRTUAL) {
+            throw new IllegalStateException("가상 데이터셋은 스냅샷 파일로 저장할 수 없습니다");
+        }
+        long start = System.currentTimeMillis();
+        DatasetSnapshot current = snapshot();
+        OffHeapEmployeeStore store;
+        Collection<Role> roles;
+        long sequence;
+        if (current.dataset() != null) {
+            EmployeeStore source = current.dataset().store();
+            roles = current.roles().values();
+            sequence = current.sequence();
+            store = source instanceof OffHeapEmployeeStore ? (OffHeapEmployeeStore) source
+                    : new OffHeapEmployeeStore.Builder().addAll(source).build(current.roles());
+        } else {
+            if (generationService.isGenerating()) {
+                throw new IllegalStateException("직원 생성 중에는 스냅샷 파일을 저장할 수 없습니다");
+            }
+            List<Role> allRoles = roleRepository.findAll();
+            roles = allRoles;
+            sequence = changeLog.currentSequence();
+            store = loadSorted(new OffHeapEmployeeStore.Builder(), roleTable(allRoles));
+        }
+
+        Path path = Paths.get(snapshotPath).toAbsolutePath();
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        long bytes = SnapshotFile.write(temp, store, roles, sequence);
+        try {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        long elapsed = System.currentTimeMillis() - start;
+        log.info("[dataset] 스냅샷 파일 {} 저장 (직원 {}명, {}MB, 변경 기록 {}, {}ms)", path, store.size(),
+                bytes >> 20, sequence, elapsed);
+        return new SnapshotFileInfo(path.toString(), store.size(), bytes, sequence, elapsed);
+    }
+
+    /**
+     * 직원 컬럼과 직원-역할 쌍을 각각 사번 순 커서로 읽어 병합하면서 저장소(columnar, offheap)를 만든다.
+     * 엔티티를 만들지 않으므로 적재 중에도 메모리 사용량이 저장소 크기를 크게 넘지 않는다.
+     */
+    private <S extends EmployeeStore> S loadSorted(EmployeeStoreBuilder<S> builder, Map<String, Role> roles) {
+        List<String> properties = Arrays.stream(EmployeeField.values()).map(EmployeeField::property)
+                .collect(Collectors.toList());
+        return readOnlyTransaction.execute(status -> {
+            try (Stream<Object[]> rows = employeeRepository.streamRows(Specification.where(null),
+                    new OffsetPageRequest(0, Integer.MAX_VALUE, Sort.by("employeeId")), properties, fetchSize);
+                 Stream<Object[]> roleIds = employeeRepository.streamRoleIds(fetchSize)) {
+                Iterator<Object[]> pairs = roleIds.iterator();
+                Object[] pair = pairs.hasNext() ? pairs.next() : null;
+                List<String> employeeRoles = new ArrayList<>();
+                for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                    String employeeId = (String) row[EmployeeField.EMPLOYEE_ID.ordinal()];
+                    employeeRoles.clear();
+                    while (pair != null && ((String) pair[0]).compareTo(employeeId) <= 0) {
+                        if (pair[0].equals(employeeId)) {
+                            employeeRoles.add((String) pair[1]);
+                        }
+                        pair = pairs.hasNext() ? pairs.next() : null;
+                    }
+                    builder.add(row, employeeRoles);
+                }
+            }
+            return builder.build(roles);
+        });
+    }
+
+    private DatasetSnapshot build(List<Role> allRoles, EmployeeDataset dataset, long sequence, long snapshotVersion) {
+        long start = System.currentTimeMillis();
+        // 인덱스를 만든 데이터셋(memory, columnar)만 직원별 비트셋을 미리 계산한다
+        AuthorizationTable table = AuthorizationTable.build(allRoles,
+                dataset != null && dataset.indexes() != null ? dataset.store() : null);
+        log.info("[dataset] 권한 비트셋 생성 완료 (권한 {}개, {}ms)", table.catalog().size(),
+                System.currentTimeMillis() - start);
+        return new DatasetSnapshot(snapshotVersion, sequence, dataset, roleTable(allRoles), table);
+    }
+
+    private static Map<String, Role> roleTable(List<Role> allRoles) {
+        Map<String, Role> roleTable = new LinkedHashMap<>();
+        for (Role role : allRoles) {
+            roleTable.put(role.getRoleId(), role);
+        }
+        return Collections.unmodifiableMap(roleTable);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeDataChanged(EmployeeDataChangedEvent event) {
+        log.info("[dataset] 직원 데이터 변경({}) - 데이터셋 재적재", event.getReason());
+        reload();
+    }
+}
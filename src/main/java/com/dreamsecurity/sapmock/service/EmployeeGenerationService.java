@@ -2,103 +2,143 @@ package com.dreamsecurity.sapmock.service;
 
 import com.dreamsecurity.sapmock.model.Employee;
 import com.dreamsecurity.sapmock.model.Role;
-import com.dreamsecurity.sapmock.repository.EmployeeRepository;
+import com.dreamsecurity.sapmock.repository.EmployeeBulkWriter;
 import com.dreamsecurity.sapmock.repository.RoleRepository;
-import com.github.javafaker.Faker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import javax.transaction.Transactional;
+import javax.annotation.PreDestroy;
 import java.time.LocalDate;
-import java.time.ZoneId;
-import java.util.*;
-import java.util.concurrent.TimeUnit;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
 public class EmployeeGenerationService {
 
-    private final EmployeeRepository employeeRepository;
+    private static final Logger log = LoggerFactory.getLogger(EmployeeGenerationService.class);
+
+    private final EmployeeBulkWriter bulkWriter;
     private final RoleRepository roleRepository;
-    private final Faker faker = new Faker(new Locale("ko"));
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool generatorPool;
+    private final DatasetVersion datasetVersion;
+    private final EmployeeChangeLog changeLog;
+    private volatile boolean generating;
+
+    @Value("${sap.gen.seed:20240101}")
+    private long defaultSeed;
+
+    @Value("${sap.gen.pool-size:4096}")
+    private int poolSize;
+
+    @Value("${sap.gen.reference-date:2026-01-01}")
+    private String referenceDate;
+
+    @Value("${sap.gen.chunk-size:5000}")
+    private int chunkSize;
 
     @Autowired
-    public EmployeeGenerationService(EmployeeRepository employeeRepository, RoleRepository roleRepository) {
-        this.employeeRepository = employeeRepository;
+    public EmployeeGenerationService(EmployeeBulkWriter bulkWriter, RoleRepository roleRepository,
+                                     ApplicationEventPublisher eventPublisher,
+                                     PlatformTransactionManager transactionManager,
+                                     DatasetVersion datasetVersion,
+                                     EmployeeChangeLog changeLog,
+                                     @Value("${sap.gen.parallelism:0}") int parallelism) {
+        this.bulkWriter = bulkWriter;
         this.roleRepository = roleRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.datasetVersion = datasetVersion;
+        this.changeLog = changeLog;
+        this.generatorPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
     }
 
-    @Transactional
-    public void generateEmployees(int count) {
-        List<Role> roles = roleRepository.findAll();
-        if (roles.isEmpty()) {
-            throw new IllegalStateException("역할(Role) 정보가 존재하지 않습니다. 마스터 데이터를 먼저 초기화하세요.");
-        }
-
-        Map<String, List<String>> deptRoleMap = Map.of(
-                "IT", List.of("ADMIN", "DEVELOPER", "BASIS", "IT_ADMIN", "S4HANA"),
-                "Sales", List.of("SALES", "SD", "BW"),
-                "Admin", List.of("HR", "FILE_ADMIN", "GRC", "SOLMAN"),
-                "Logistics", List.of("MM", "WM", "PM", "PP", "QM"),
-                "Finance", List.of("FI", "CO")
-        );
-
-        List<String> departments = new ArrayList<>(deptRoleMap.keySet());
-        List<Employee> employees = new ArrayList<>();
-
-        Map<String, Role> roleMap = roles.stream().collect(Collectors.toMap(Role::getRoleId, r -> r));
-
-        for (int i = 0; i < count; i++) {
-            Employee emp = new Employee();
-            emp.setEmployeeId(String.format("%05d", 10000 + i));
-            emp.setFirstName(faker.name().firstName());
-            emp.setLastName(faker.name().lastName());
-            emp.setMiddleName(faker.bool().bool() ? faker.name().firstName() : "");
-            emp.setBirthDate(toLocalDate(faker.date().birthday(20, 60)));
-            emp.setGender(faker.demographic().sex().substring(0, 1).toUpperCase());
-            emp.setNationality(faker.country().countryCode2());
-            emp.setMaritalStatus(faker.options().option("Single", "Married", "Divorced", "Widowed"));
-            emp.setPosition(faker.job().position());
-            emp.setJobTitle(faker.job().title());
-
-            String deptType = faker.options().option(departments.toArray(new String[0]));
-            emp.setDepartment(
-                    deptType.equals("IT") ? "1001" :
-                            deptType.equals("Sales") ? "2001" :
-                                    deptType.equals("Finance") ? "3001" :
-                                            deptType.equals("Logistics") ? "4001" : "0001");
-            emp.setDepartmentName(deptType);
-
-            List<String> roleIds = deptRoleMap.getOrDefault(deptType, List.of());
-            Set<Role> assignedRoles = new HashSet<>();
-            while (assignedRoles.isEmpty()) {
-                int numRoles = faker.number().numberBetween(1, 4); // 최소 1개 보장
-                Collections.shuffle(roles);
-                assignedRoles.addAll(roles.subList(0, numRoles));
-            }
-            emp.setRoles(assignedRoles);
+    /** 생성 작업이 DB 를 채우는 중인지 (그동안 DB 의 직원 데이터는 일부만 들어 있다) */
+    public boolean isGenerating() {
+        return generating;
+    }
 
-            emp.setHireDate(toLocalDate(faker.date().past(5000, TimeUnit.DAYS)));
-            emp.setTerminationDate(faker.bool().bool() ? toLocalDate(faker.date().future(1000, TimeUnit.DAYS)) : null);
+    public long defaultSeed() {
+        return defaultSeed;
+    }
 
-            Faker englishFaker = new Faker(new Locale("en"));
-            String englishFirstName = englishFaker.name().firstName().toLowerCase();
-            String englishLastName = englishFaker.name().lastName().toLowerCase();
-            emp.setWorkEmail(englishFirstName + "." + englishLastName + "@company.com");
+    /**
+     * 기존 직원을 지우고 job.getCount() 명을 chunk-size 단위로 생성/저장한다.
+     * 기존 데이터는 TRUNCATE 로 비우고, 청크마다 JDBC 배치 insert 후 커밋하므로 메모리 사용량은 전체 인원이 아니라 청크 크기에 비례한다.
+     * 취소 요청은 청크 사이에서 확인한다. 같은 시드면 코어 수와 관계없이 항상 같은 직원 목록을 만든다.
+     * jpa 엔진은 커밋된 청크가 바로 조회되므로, 비우기와 청크 커밋마다 데이터 버전을 올린다.
+     * 변경 로그에는 기존 직원 전체의 삭제와 청크별 사번 구간의 추가를 같은 트랜잭션에서 남긴다.
+     * 메모리 엔진의 스냅샷은 생성 중에는 바뀌지 않고, 끝나거나 비운 뒤 도중에 실패하면 발행하는 변경 이벤트로 한 번에 교체된다.
+     */
+    public void generateEmployees(GenerationJob job) {
+        SeededEmployeeFactory factory = newFactory(job.getSeed());
+
+        boolean truncated = false;
+        generating = true;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                changeLog.recordAllDeleted();
+                bulkWriter.truncate();
+            });
+            truncated = true;
+            datasetVersion.increment();
+
+            int count = job.getCount();
+            for (int from = 0; from < count && !job.isCancelRequested(); from += chunkSize) {
+                int to = Math.min(count, from + chunkSize);
+                List<Employee> chunk = createEmployees(factory, from, to);
+                transactionTemplate.executeWithoutResult(status -> {
+                    bulkWriter.insert(chunk);
+                    changeLog.recordUpserted(chunk.stream().map(Employee::getEmployeeId).collect(Collectors.toList()));
+                });
+                datasetVersion.increment();
+                job.addRows(chunk.size());
+            }
+        } finally {
+            generating = false;
+            // 청크가 도중에 실패해도 DB 는 이미 비워졌으므로, 스냅샷이 지워진 직원을 계속 응답하지 않게 커밋된 만큼으로 재적재한다
+            if (truncated) {
+                log.info("[generateEmployees] 직원 {}명 저장 (병렬도 {})", job.getRowsDone(), generatorPool.getParallelism());
+                eventPublisher.publishEvent(new EmployeeDataChangedEvent("generate " + job.getRowsDone()));
+            }
+        }
+    }
 
-            emp.setWorkPhone(faker.phoneNumber().phoneNumber());
-            emp.setMobilePhone(faker.phoneNumber().cellPhone());
-            emp.setAddress(faker.address().fullAddress());
-            emp.setBankAccount(faker.number().digits(12));
-            emp.setTaxId(faker.number().digits(9));
+    public SeededEmployeeFactory newFactory(long seed) {
+        List<Role> roles = roleRepository.findAll();
+        return new SeededEmployeeFactory(seed, EmployeeValuePools.create(seed, poolSize), roles,
+                LocalDate.parse(referenceDate));
+    }
 
-            employees.add(emp);
+    /**
+     * 순번 구간 [from, to) 를 워커들이 나눠 만들되, 결과는 순번 순서를 유지한다.
+     */
+    private List<Employee> createEmployees(SeededEmployeeFactory factory, int from, int to) {
+        try {
+            return generatorPool.submit(() -> IntStream.range(from, to)
+                    .parallel()
+                    .mapToObj(factory::create)
+                    .collect(Collectors.toList())).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("직원 생성이 중단되었습니다", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("직원 생성 실패", ex.getCause());
         }
-        employeeRepository.deleteAll();
-        employeeRepository.saveAll(employees);
     }
 
-    private LocalDate toLocalDate(Date date) {
-        return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    @PreDestroy
+    public void shutdown() {
+        generatorPool.shutdownNow();
     }
-}
\ No newline at end of file
+}
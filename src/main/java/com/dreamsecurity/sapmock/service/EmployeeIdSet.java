@@ -0,0 +1,140 @@
+package com.dreamsecurity.sapmock.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * 사번 집합. 숫자 사번(앞자리 0 없는 10진수)은 연속 구간으로 묶어 보관하고, 그 밖의 사번은 따로 보관한다.
+ * 생성된 사번은 연속이므로 직원 수와 관계없이 구간 몇 개로 표현된다.
+ */
+public final class EmployeeIdSet {
+
+    /** 겹치지 않고 오름차순인 구간 [start, end] */
+    private final long[] starts;
+    private final long[] ends;
+    private final TreeSet<String> others;
+
+    private EmployeeIdSet(long[] starts, long[] ends, TreeSet<String> others) {
+        this.starts = starts;
+        this.ends = ends;
+        this.others = others;
+    }
+
+    public int rangeCount() {
+        return starts.length;
+    }
+
+    public long rangeStart(int i) {
+        return starts[i];
+    }
+
+    public long rangeEnd(int i) {
+        return ends[i];
+    }
+
+    public TreeSet<String> others() {
+        return others;
+    }
+
+    public long size() {
+        long size = others.size();
+        for (int i = 0; i < starts.length; i++) {
+            size += ends[i] - starts[i] + 1;
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return starts.length == 0 && others.isEmpty();
+    }
+
+    /** 숫자 사번을 오름차순으로, 이어서 그 밖의 사번을 사전순으로 */
+    public void forEach(Consumer<String> action) {
+        for (int i = 0; i < starts.length; i++) {
+            for (long id = starts[i]; id <= ends[i]; id++) {
+                action.accept(Long.toString(id));
+            }
+        }
+        others.forEach(action);
+    }
+
+    /** 앞자리 0 이 없는 10진수 사번이면 그 값, 아니면 -1 (구간으로 묶으면 문자열이 달라지는 사번) */
+    static long numericId(String employeeId) {
+        int length = employeeId.length();
+        if (length == 0 || length > 18 || (employeeId.charAt(0) == '0' && length > 1)) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            char c = employeeId.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private long[] points = new long[64];
+        private int pointCount;
+        private final List<long[]> ranges = new ArrayList<>();
+        private final TreeSet<String> others = new TreeSet<>();
+
+        public Builder add(String employeeId) {
+            long numeric = numericId(employeeId);
+            if (numeric < 0) {
+                others.add(employeeId);
+            } else {
+                if (pointCount == points.length) {
+                    points = Arrays.copyOf(points, pointCount * 2);
+                }
+                points[pointCount++] = numeric;
+            }
+            return this;
+        }
+
+        public Builder addRange(long start, long end) {
+            ranges.add(new long[]{start, end});
+            return this;
+        }
+
+        public EmployeeIdSet build() {
+            List<long[]> all = new ArrayList<>(ranges);
+            Arrays.sort(points, 0, pointCount);
+            for (int i = 0; i < pointCount; ) {
+                long start = points[i];
+                long end = start;
+                while (++i < pointCount && points[i] <= end + 1) {
+                    end = points[i];
+                }
+                all.add(new long[]{start, end});
+            }
+            all.sort(Comparator.comparingLong(r -> r[0]));
+
+            // 겹치거나 맞닿은 구간을 합친다
+            long[] starts = new long[all.size()];
+            long[] ends = new long[all.size()];
+            int count = 0;
+            for (long[] range : all) {
+                if (count > 0 && range[0] <= ends[count - 1] + 1) {
+                    ends[count - 1] = Math.max(ends[count - 1], range[1]);
+                } else {
+                    starts[count] = range[0];
+                    ends[count] = range[1];
+                    count++;
+                }
+            }
+            return new EmployeeIdSet(Arrays.copyOf(starts, count), Arrays.copyOf(ends, count), others);
+        }
+    }
+}
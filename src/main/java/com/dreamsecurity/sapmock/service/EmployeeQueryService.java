@@ -1,33 +1,279 @@
 package com.dreamsecurity.sapmock.service;
 
+import com.dreamsecurity.sapmock.cache.LruCache;
+import com.dreamsecurity.sapmock.filter.CompiledFilter;
+import com.dreamsecurity.sapmock.filter.EmployeeField;
 import com.dreamsecurity.sapmock.model.Employee;
+import com.dreamsecurity.sapmock.model.Role;
 import com.dreamsecurity.sapmock.repository.EmployeeRepository;
+import com.dreamsecurity.sapmock.repository.OffsetPageRequest;
+import com.dreamsecurity.sapmock.sort.EmployeeOrder;
+import com.dreamsecurity.sapmock.store.EmployeeDataset;
+import com.dreamsecurity.sapmock.store.StoreEngine;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class EmployeeQueryService {
 
+    /** IN 절 하나에 넣는 사번 수 */
+    private static final int ID_BATCH_SIZE = 1000;
+
     private final EmployeeRepository employeeRepository;
+    private final EmployeeDatasetService datasetService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EmployeeChangeLog changeLog;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnlyTransaction;
+    /** (데이터셋 버전, $filter) 별 건수 */
+    private final LruCache<String, Long> countCache;
+
+    @Value("${sap.jpa.fetch-size:1000}")
+    private int fetchSize;
 
     @Autowired
-    public EmployeeQueryService(EmployeeRepository employeeRepository) {
+    public EmployeeQueryService(EmployeeRepository employeeRepository,
+                                EmployeeDatasetService datasetService,
+                                EmployeeChangeLog changeLog,
+                                ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${sap.odata.count-cache-size:256}") int countCacheSize) {
         this.employeeRepository = employeeRepository;
+        this.datasetService = datasetService;
+        this.changeLog = changeLog;
+        this.eventPublisher = eventPublisher;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.countCache = new LruCache<>(countCacheSize);
+    }
+
+    /**
+     * order 순서에서 커서 after(마지막으로 보낸 행의 정렬 키 값) 다음 직원부터 읽는 keyset 페이징. after 가 null 이면 처음부터.
+     * 시작 위치를 인덱스/정렬 순번 배열(메모리) 또는 키 비교 조건(jpa)으로 바로 찾으므로 페이지 비용이 위치와 관계없다.
+     * columns 값만 columns 순서의 배열로 넘긴다 ($select). 메모리 데이터셋은 저장소에서 해당 값만 읽고,
+     * jpa 엔진은 해당 컬럼만 SELECT 하는 프로젝션 쿼리를 fetch-size 단위 커서로 읽으므로 메모리 사용량이 $top 과 관계없이 일정하다.
+     * 아래 조회들도 모두 요청이 잡은 snapshot 으로 응답하므로, 한 요청에서 여러 번 불러도 같은 버전을 본다.
+     *
+     * @return 넘긴 행 수
+     */
+    public int forEachRowInPage(DatasetSnapshot snapshot, CompiledFilter filter, EmployeeOrder order, Object[] after,
+                                int skip, int top, List<EmployeeField> columns, Consumer<Object[]> action) {
+        if (top <= 0) {
+            return 0;
+        }
+        EmployeeDataset dataset = snapshot.dataset();
+        if (dataset != null) {
+            return dataset.forEachRowInPage(filter, order, after, skip, top, columns, action);
+        }
+
+        Specification<Employee> query = pageSpecification(filter, order, after);
+        List<String> properties = columns.stream().map(EmployeeField::property).collect(Collectors.toList());
+        Integer emitted = readOnlyTransaction.execute(status -> {
+            int count = 0;
+            try (Stream<Object[]> rows = employeeRepository.streamRows(query,
+                    new OffsetPageRequest(skip, top, sortOf(order)), properties, fetchSize)) {
+                for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                    action.accept(row);
+                    count++;
+                }
+            }
+            return count;
+        });
+        return emitted == null ? 0 : emitted;
+    }
+
+    /** order 로 페이징할 수 있는지 (virtual 엔진은 employeeId 순서만 지원) */
+    public boolean supportsOrder(DatasetSnapshot snapshot, EmployeeOrder order) {
+        EmployeeDataset dataset = snapshot.dataset();
+        return dataset == null || dataset.canOrderBy(order);
     }
 
-    public List<Employee> findAll() {
-        return employeeRepository.findAll();
+    private static Specification<Employee> pageSpecification(CompiledFilter filter, EmployeeOrder order, Object[] after) {
+        Specification<Employee> spec = EmployeeSpecifications.fromFilter(filter);
+        return after == null ? spec : spec.and(EmployeeSpecifications.after(order, after));
     }
 
-    public Optional<Employee> findById(String id) {
+    private static Sort sortOf(EmployeeOrder order) {
+        return Sort.by(order.keys().stream()
+                .map(key -> key.isDescending() ? Sort.Order.desc(key.field().property()) : Sort.Order.asc(key.field().property()))
+                .collect(Collectors.toList()));
+    }
+
+    /** 한 직원의 columns 값. 없으면 empty */
+    public Optional<Object[]> findRowById(DatasetSnapshot snapshot, String id, List<EmployeeField> columns) {
+        EmployeeDataset dataset = snapshot.dataset();
+        if (dataset != null) {
+            return Optional.ofNullable(dataset.findRowById(id, columns));
+        }
+        List<String> properties = columns.stream().map(EmployeeField::property).collect(Collectors.toList());
+        return readOnlyTransaction.execute(status -> {
+            try (Stream<Object[]> rows = employeeRepository.streamRows(EmployeeSpecifications.byId(id),
+                    new OffsetPageRequest(0, 1, Sort.unsorted()), properties, 1)) {
+                return rows.findFirst();
+            }
+        });
+    }
+
+    /**
+     * $filter 에 맞는 직원 수 ($count, $inlinecount).
+     * 메모리 데이터셋은 인덱스 카디널리티로, jpa 엔진은 COUNT 쿼리로 구하며 직원 목록을 만들지 않는다.
+     * 결과는 스냅샷 버전별로 캐시하므로 데이터가 바뀌면 다시 센다.
+     */
+    public long count(DatasetSnapshot snapshot, CompiledFilter filter) {
+        String key = snapshot.version() + "\n" + filter.source();
+        return countCache.computeIfAbsent(key, k -> {
+            EmployeeDataset dataset = snapshot.dataset();
+            if (dataset != null) {
+                return dataset.count(filter);
+            }
+            return employeeRepository.count(EmployeeSpecifications.fromFilter(filter));
+        });
+    }
+
+    public Optional<Employee> findById(DatasetSnapshot snapshot, String id) {
+        EmployeeDataset dataset = snapshot.dataset();
+        if (dataset != null) {
+            return Optional.ofNullable(dataset.findById(id));
+        }
         return employeeRepository.findById(id);
     }
 
+    /**
+     * 여러 사번의 직원을 역할과 함께 조회한다. 없는 사번은 결과에서 빠지며 순서는 보장하지 않는다.
+     * 가상 데이터셋은 직원 계산이 CPU 작업이므로 병렬로 만든다.
+     */
+    public List<Employee> findAllWithRoles(DatasetSnapshot snapshot, Collection<String> employeeIds) {
+        EmployeeDataset dataset = snapshot.dataset();
+        if (dataset != null) {
+            return employeeIds.parallelStream()
+                    .map(dataset::findById)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        }
+        List<String> ids = new ArrayList<>(employeeIds);
+        List<Employee> employees = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += ID_BATCH_SIZE) {
+            employees.addAll(employeeRepository.findAllWithRolesByEmployeeIdIn(
+                    ids.subList(from, Math.min(ids.size(), from + ID_BATCH_SIZE))));
+        }
+        return employees;
+    }
+
+    /**
+     * 여러 직원의 역할을 사번별로 돌려준다 ($expand). 없는 사번이나 역할이 없는 직원은 결과에 없다.
+     * 메모리/가상 데이터셋은 직원에 역할이 이미 있으므로 쿼리가 없고, jpa 엔진은 (사번, 역할 ID) 쌍만 IN 조회로 읽은 뒤
+     * 역할과 권한은 메모리 역할표에서 찾는다. 사번 ID_BATCH_SIZE 개당 쿼리 한 번이다.
+     */
+    public Map<String, List<Role>> findRoles(DatasetSnapshot snapshot, Collection<String> employeeIds) {
+        Map<String, List<Role>> roles = new HashMap<>();
+        EmployeeDataset dataset = snapshot.dataset();
+        if (dataset != null) {
+            for (String id : employeeIds) {
+                Set<Role> employeeRoles = dataset.findRolesById(id);
+                if (employeeRoles != null) {
+                    roles.put(id, new ArrayList<>(employeeRoles));
+                }
+            }
+            return roles;
+        }
+        Map<String, Role> roleTable = snapshot.roles();
+        List<String> ids = new ArrayList<>(employeeIds);
+        for (int from = 0; from < ids.size(); from += ID_BATCH_SIZE) {
+            for (Object[] pair : employeeRepository.findRoleIdsByEmployeeIdIn(
+                    ids.subList(from, Math.min(ids.size(), from + ID_BATCH_SIZE)))) {
+                Role role = roleTable.get((String) pair[1]);
+                if (role != null) {
+                    roles.computeIfAbsent((String) pair[0], k -> new ArrayList<>()).add(role);
+                }
+            }
+        }
+        return roles;
+    }
+
+    /**
+     * 델타 조회에서 볼 수 있는 마지막 변경 기록 번호.
+     * 메모리/가상 엔진은 조회가 스냅샷의 데이터셋을 보므로 그 스냅샷을 적재한 시점의 번호, jpa 엔진은 DB 의 최신 번호다.
+     */
+    public long deltaSequence(DatasetSnapshot snapshot) {
+        if (datasetService.engine() == StoreEngine.JPA) {
+            return changeLog.currentSequence();
+        }
+        return snapshot.sequence();
+    }
+
+    /**
+     * 변경 기록 번호 after 초과 upTo 이하에서 바뀐 직원을 알려준다 ($deltatoken).
+     * 바뀐 사번마다 지금 있고 filter 에 맞으면 changed, 없어졌거나 filter 에서 벗어났으면 deleted 로 한 번씩 방문한다.
+     * 가상 데이터셋은 seed 로만 계산되어 바뀌지 않으므로 항상 비어 있다.
+     */
+    public void forEachChange(DatasetSnapshot snapshot, long after, long upTo, CompiledFilter filter, DeltaVisitor visitor) {
+        if (datasetService.engine() == StoreEngine.VIRTUAL || after >= upTo) {
+            return;
+        }
+        EmployeeIdSet changed = changeLog.changedBetween(after, upTo);
+        List<String> batch = new ArrayList<>(ID_BATCH_SIZE);
+        changed.forEach(id -> {
+            batch.add(id);
+            if (batch.size() == ID_BATCH_SIZE) {
+                visitBatch(snapshot, batch, filter, visitor);
+                batch.clear();
+            }
+        });
+        visitBatch(snapshot, batch, filter, visitor);
+    }
+
+    private void visitBatch(DatasetSnapshot snapshot, List<String> ids, CompiledFilter filter, DeltaVisitor visitor) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<String, Employee> found = new HashMap<>();
+        for (Employee employee : findAllWithRoles(snapshot, ids)) {
+            found.put(employee.getEmployeeId(), employee);
+        }
+        for (String id : ids) {
+            Employee employee = found.get(id);
+            if (employee != null && filter.test(employee)) {
+                visitor.changed(employee);
+            } else {
+                visitor.deleted(id);
+            }
+        }
+    }
+
+    public interface DeltaVisitor {
+
+        void changed(Employee employee);
+
+        void deleted(String employeeId);
+    }
+
     public Employee save(Employee employee) {
-        return employeeRepository.save(employee);
+        Employee saved = transaction.execute(status -> {
+            Employee result = employeeRepository.save(employee);
+            changeLog.recordUpserted(List.of(result.getEmployeeId()));
+            return result;
+        });
+        eventPublisher.publishEvent(new EmployeeDataChangedEvent("save " + employee.getEmployeeId()));
+        return saved;
     }
 
     public boolean hasEnoughEmployees(int required) {
@@ -0,0 +1,160 @@
+package com.dreamsecurity.sapmock.service;
+
+import com.dreamsecurity.sapmock.filter.CompiledFilter;
+import com.dreamsecurity.sapmock.filter.ComparisonOperator;
+import com.dreamsecurity.sapmock.filter.FilterExpression;
+import com.dreamsecurity.sapmock.model.Employee;
+import com.dreamsecurity.sapmock.sort.EmployeeOrder;
+import com.dreamsecurity.sapmock.sort.SortKey;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 컴파일된 $filter 구문 트리를 JPA Specification 으로 변환한다.
+ * FilterExpression.Comparison 의 메모리 비교 규칙(대소문자 무시 여부, 날짜/숫자 비교, null 처리)을 그대로 SQL 조건으로 옮긴 것이다.
+ * SQL 비교는 null 에서 UNKNOWN 이 되어 not 을 씌워도 참이 되지 않으므로, 비교마다 null 일 때의 결과를 명시해
+ * 참/거짓 두 값만 나오게 한다. 그래야 not (...) 도 메모리 평가와 같은 행을 고른다.
+ */
+public final class EmployeeSpecifications {
+
+    private EmployeeSpecifications() {
+    }
+
+    public static Specification<Employee> fromFilter(CompiledFilter filter) {
+        if (filter == null || filter.isEmpty()) {
+            return Specification.where(null);
+        }
+        FilterExpression expression = filter.expression();
+        return (root, query, cb) -> expression.accept(new PredicateBuilder(root, cb));
+    }
+
+    /**
+     * order 순서에서 커서 cursor 다음부터 (keyset 페이징).
+     * (k1 이 뒤) or (k1 같음 and k2 가 뒤) or ... 로 풀며, null 은 가장 작은 값으로 본다 (H2 기본 정렬과 같다).
+     */
+    public static Specification<Employee> after(EmployeeOrder order, Object[] cursor) {
+        List<SortKey> keys = order.keys();
+        return (root, query, cb) -> {
+            List<Predicate> alternatives = new ArrayList<>();
+            List<Predicate> equalSoFar = new ArrayList<>();
+            for (int i = 0; i < keys.size(); i++) {
+                SortKey key = keys.get(i);
+                Path<Comparable<Object>> path = root.get(key.field().property());
+                Predicate beyond = beyond(cb, path, key, cursor[i]);
+                if (beyond != null) {
+                    List<Predicate> alternative = new ArrayList<>(equalSoFar);
+                    alternative.add(beyond);
+                    alternatives.add(cb.and(alternative.toArray(new Predicate[0])));
+                }
+                equalSoFar.add(cursor[i] == null ? cb.isNull(path) : cb.equal(path, cursor[i]));
+            }
+            return alternatives.isEmpty() ? cb.disjunction() : cb.or(alternatives.toArray(new Predicate[0]));
+        };
+    }
+
+    /** key 방향으로 value 보다 뒤에 오는 값 조건. 그런 값이 없으면 null */
+    @SuppressWarnings("unchecked")
+    private static Predicate beyond(CriteriaBuilder cb, Path<Comparable<Object>> path, SortKey key, Object value) {
+        if (!key.isDescending()) {
+            return value == null ? cb.isNotNull(path) : cb.greaterThan(path, (Comparable<Object>) value);
+        }
+        return value == null ? null : cb.or(cb.lessThan(path, (Comparable<Object>) value), cb.isNull(path));
+    }
+
+    public static Specification<Employee> byId(String employeeId) {
+        return (root, query, cb) -> cb.equal(root.get("employeeId"), employeeId);
+    }
+
+    private static final class PredicateBuilder implements FilterExpression.Visitor<Predicate> {
+
+        /** Long.parseLong 이 읽는 형태 (부호, 앞자리 0 허용) 중 Long 범위 안이 보장되는 18자리까지 */
+        private static final String NUMERIC_CODE = "^[+-]?0*[0-9]{1,18}$";
+
+        private final Root<Employee> root;
+        private final CriteriaBuilder cb;
+
+        PredicateBuilder(Root<Employee> root, CriteriaBuilder cb) {
+            this.root = root;
+            this.cb = cb;
+        }
+
+        @Override
+        public Predicate visitAnd(FilterExpression.And and) {
+            return cb.and(and.operands().stream().map(o -> o.accept(this)).toArray(Predicate[]::new));
+        }
+
+        @Override
+        public Predicate visitOr(FilterExpression.Or or) {
+            return cb.or(or.operands().stream().map(o -> o.accept(this)).toArray(Predicate[]::new));
+        }
+
+        @Override
+        public Predicate visitNot(FilterExpression.Not not) {
+            return cb.not(not.operand().accept(this));
+        }
+
+        @Override
+        public Predicate visitComparison(FilterExpression.Comparison comparison) {
+            Path<Object> path = root.get(comparison.field().property());
+            ComparisonOperator operator = comparison.operator();
+            Object operand = comparison.operand();
+
+            if (operand == null) {
+                return operator == ComparisonOperator.EQ ? cb.isNull(path) : cb.isNotNull(path);
+            }
+
+            Predicate predicate;
+            switch (comparison.field().type()) {
+                case DATE:
+                    predicate = compare(path.as(LocalDate.class), operator, (LocalDate) operand);
+                    break;
+                case CODE:
+                    predicate = operator.isRange()
+                            ? compareNumber(path, operator, (Long) operand)
+                            : compare(path.as(String.class), operator, (String) operand);
+                    break;
+                default:
+                    predicate = compare(cb.lower(path.as(String.class)), operator, ((String) operand).toLowerCase());
+                    break;
+            }
+            // 메모리 평가와 같이 null 값은 ne 조건만 만족한다
+            return operator == ComparisonOperator.NE
+                    ? cb.or(cb.isNull(path), predicate)
+                    : cb.and(cb.isNotNull(path), predicate);
+        }
+
+        /**
+         * 코드 값을 숫자로 범위 비교한다. 메모리 평가는 Long 으로 읽히지 않는 값("N/A" 등)에서 거짓이므로
+         * 숫자 형태인 값만 CASE 안에서 BIGINT 로 바꾼다. 그냥 CAST 하면 그런 행 하나로 쿼리 전체가 실패한다.
+         * Long 범위를 넘을 수 있는 19자리 이상 값은 숫자로 보지 않는다.
+         */
+        private Predicate compareNumber(Path<Object> path, ComparisonOperator operator, Long target) {
+            Predicate numeric = cb.isTrue(cb.function("REGEXP_LIKE", Boolean.class,
+                    path, cb.literal(NUMERIC_CODE)));
+            Expression<Long> number = cb.<Long>selectCase()
+                    .when(numeric, path.as(Long.class))
+                    .otherwise(cb.nullLiteral(Long.class));
+            return cb.and(numeric, compare(number, operator, target));
+        }
+
+        private <T extends Comparable<? super T>> Predicate compare(Expression<T> path, ComparisonOperator operator, T target) {
+            switch (operator) {
+                case EQ: return cb.equal(path, target);
+                case NE: return cb.notEqual(path, target);
+                case GT: return cb.greaterThan(path, target);
+                case GE: return cb.greaterThanOrEqualTo(path, target);
+                case LT: return cb.lessThan(path, target);
+                case LE: return cb.lessThanOrEqualTo(path, target);
+                default: return cb.disjunction();
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.dreamsecurity.sapmock.service;
+
+import com.github.javafaker.Faker;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * 직원 생성에 쓰는 값 후보 목록.
+ * Faker 호출(YAML 조회, 정규식 치환)은 직원마다 하기에는 비싸므로, 시드로 고정한 Faker 로 한 번 뽑아 두고
+ * 직원 생성 시에는 배열에서 고르기만 한다. 같은 시드와 크기면 항상 같은 목록이 만들어진다.
+ */
+public final class EmployeeValuePools {
+
+    final String[] firstNames;
+    final String[] lastNames;
+    final String[] countryCodes;
+    final String[] positions;
+    final String[] jobTitles;
+    final String[] englishFirstNames;
+    final String[] englishLastNames;
+    final String[] workPhones;
+    final String[] mobilePhones;
+    final String[] addresses;
+
+    private EmployeeValuePools(long seed, int size) {
+        Faker faker = new Faker(new Locale("ko"), new Random(seed));
+        Faker englishFaker = new Faker(new Locale("en"), new Random(seed + 1));
+
+        this.firstNames = draw(size, () -> faker.name().firstName());
+        this.lastNames = draw(size, () -> faker.name().lastName());
+        this.countryCodes = draw(size, () -> faker.country().countryCode2());
+        this.positions = draw(size, () -> faker.job().position());
+        this.jobTitles = draw(size, () -> faker.job().title());
+        this.englishFirstNames = draw(size, () -> englishFaker.name().firstName().toLowerCase());
+        this.englishLastNames = draw(size, () -> englishFaker.name().lastName().toLowerCase());
+        this.workPhones = draw(size, () -> faker.phoneNumber().phoneNumber());
+        this.mobilePhones = draw(size, () -> faker.phoneNumber().cellPhone());
+        this.addresses = draw(size, () -> faker.address().fullAddress());
+    }
+
+    public static EmployeeValuePools create(long seed, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("pool size must be at least 1");
+        }
+        return new EmployeeValuePools(seed, size);
+    }
+
+    static String pick(String[] pool, SplittableRandom random) {
+        return pool[random.nextInt(pool.length)];
+    }
+
+    private static String[] draw(int size, Supplier<String> supplier) {
+        String[] values = new String[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = supplier.get();
+        }
+        return values;
+    }
+}
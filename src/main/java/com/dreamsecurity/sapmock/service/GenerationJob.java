@@ -0,0 +1,76 @@
+package com.dreamsecurity.sapmock.service;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 백그라운드 직원 생성 작업의 진행 상태. 작업 스레드가 갱신하고 조회 API 가 읽는다.
+ */
+public class GenerationJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, CANCELLED, FAILED }
+
+    private final String jobId;
+    private final int count;
+    private final long seed;
+    private final AtomicLong rowsDone = new AtomicLong();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile boolean cancelRequested;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String message;
+
+    public GenerationJob(String jobId, int count, long seed) {
+        this.jobId = jobId;
+        this.count = count;
+        this.seed = seed;
+    }
+
+    public String getJobId() { return jobId; }
+    public int getCount() { return count; }
+    public long getSeed() { return seed; }
+    public Status getStatus() { return status; }
+    public long getRowsDone() { return rowsDone.get(); }
+    public Instant getStartedAt() { return startedAt; }
+    public Instant getFinishedAt() { return finishedAt; }
+    public String getMessage() { return message; }
+
+    public long getRowsPerSecond() {
+        Instant start = startedAt;
+        if (start == null) {
+            return 0;
+        }
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long millis = Math.max(1, end.toEpochMilli() - start.toEpochMilli());
+        return rowsDone.get() * 1000 / millis;
+    }
+
+    public boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    public boolean isFinished() {
+        Status s = status;
+        return s == Status.COMPLETED || s == Status.CANCELLED || s == Status.FAILED;
+    }
+
+    void requestCancel() {
+        cancelRequested = true;
+    }
+
+    void markRunning() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    void addRows(long rows) {
+        rowsDone.addAndGet(rows);
+    }
+
+    void finish(Status finalStatus, String finalMessage) {
+        message = finalMessage;
+        finishedAt = Instant.now();
+        status = finalStatus;
+    }
+}
@@ -0,0 +1,109 @@
+package com.dreamsecurity.sapmock.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 직원 생성을 백그라운드 작업으로 실행한다.
+ * 생성은 직원 테이블 전체를 교체하므로 한 번에 하나의 작업만 실행한다.
+ */
+@Service
+public class GenerationJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(GenerationJobService.class);
+    private static final int MAX_RETAINED_JOBS = 50;
+
+    private final EmployeeGenerationService generationService;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "employee-generation");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, GenerationJob> jobs = new LinkedHashMap<>();
+
+    @Autowired
+    public GenerationJobService(EmployeeGenerationService generationService) {
+        this.generationService = generationService;
+    }
+
+    /**
+     * @throws IllegalArgumentException count 가 음수인 경우
+     * @throws IllegalStateException 이미 실행 중인 작업이 있는 경우
+     */
+    public synchronized GenerationJob submit(int count, Long seed) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count 는 0 이상이어야 합니다");
+        }
+        if (jobs.values().stream().anyMatch(job -> !job.isFinished())) {
+            throw new IllegalStateException("이미 실행 중인 직원 생성 작업이 있습니다");
+        }
+        GenerationJob job = new GenerationJob(UUID.randomUUID().toString(), count,
+                seed != null ? seed : generationService.defaultSeed());
+        jobs.put(job.getJobId(), job);
+        evictOldJobs();
+        executor.submit(() -> run(job));
+        return job;
+    }
+
+    public synchronized Optional<GenerationJob> find(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    public synchronized List<GenerationJob> findAll() {
+        return new ArrayList<>(jobs.values());
+    }
+
+    public synchronized Optional<GenerationJob> cancel(String jobId) {
+        GenerationJob job = jobs.get(jobId);
+        if (job != null && !job.isFinished()) {
+            job.requestCancel();
+        }
+        return Optional.ofNullable(job);
+    }
+
+    private void run(GenerationJob job) {
+        job.markRunning();
+        log.info("[generation-job] {} 시작: count={}, seed={}", job.getJobId(), job.getCount(), job.getSeed());
+        try {
+            generationService.generateEmployees(job);
+            if (job.isCancelRequested()) {
+                job.finish(GenerationJob.Status.CANCELLED, job.getRowsDone() + "명 생성 후 취소됨");
+            } else {
+                job.finish(GenerationJob.Status.COMPLETED, null);
+            }
+        } catch (RuntimeException ex) {
+            log.error("[generation-job] {} 실패", job.getJobId(), ex);
+            job.finish(GenerationJob.Status.FAILED, ex.getMessage());
+        }
+        log.info("[generation-job] {} 종료: status={}, rows={}, {} rows/s",
+                job.getJobId(), job.getStatus(), job.getRowsDone(), job.getRowsPerSecond());
+    }
+
+    private void evictOldJobs() {
+        Iterator<GenerationJob> it = jobs.values().iterator();
+        while (jobs.size() > MAX_RETAINED_JOBS && it.hasNext()) {
+            if (it.next().isFinished()) {
+                it.remove();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(GenerationJob::requestCancel);
+        executor.shutdownNow();
+    }
+}
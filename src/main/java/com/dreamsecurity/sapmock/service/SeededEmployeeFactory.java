@@ -0,0 +1,141 @@
+package com.dreamsecurity.sapmock.service;
+
+import com.dreamsecurity.sapmock.model.Employee;
+import com.dreamsecurity.sapmock.model.Role;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * (시드, 순번) 만으로 직원 한 명을 결정적으로 만든다.
+ * 직원마다 독립된 난수열을 쓰므로 어떤 순서로, 몇 개의 스레드로 만들어도 같은 시드면 같은 결과가 나온다.
+ * 상태를 바꾸지 않으므로 여러 스레드에서 동시에 호출해도 된다.
+ */
+public final class SeededEmployeeFactory {
+
+    public static final int FIRST_EMPLOYEE_NUMBER = 10000;
+
+    private static final String[] DEPARTMENT_NAMES = {"IT", "Sales", "Admin", "Logistics", "Finance"};
+    private static final String[] DEPARTMENT_CODES = {"1001", "2001", "0001", "4001", "3001"};
+    private static final String[] MARITAL_STATUSES = {"Single", "Married", "Divorced", "Widowed"};
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private final EmployeeValuePools pools;
+    private final Role[] roles;
+    private final LocalDate referenceDate;
+
+    /**
+     * @param referenceDate 입사일/생일/퇴사일을 계산하는 기준일. 실행 날짜에 따라 결과가 달라지지 않도록 고정값을 쓴다.
+     */
+    public SeededEmployeeFactory(long seed, EmployeeValuePools pools, List<Role> roles, LocalDate referenceDate) {
+        if (roles.isEmpty()) {
+            throw new IllegalStateException("역할(Role) 정보가 존재하지 않습니다. 마스터 데이터를 먼저 초기화하세요.");
+        }
+        List<Role> sorted = new ArrayList<>(roles);
+        sorted.sort(Comparator.comparing(Role::getRoleId));
+        this.seed = seed;
+        this.pools = pools;
+        this.roles = sorted.toArray(new Role[0]);
+        this.referenceDate = referenceDate;
+    }
+
+    public static String employeeId(long ordinal) {
+        return String.format("%05d", FIRST_EMPLOYEE_NUMBER + ordinal);
+    }
+
+    /** employeeId(ordinal) 의 역함수. 이 팩토리가 만들 수 있는 형식이 아니면 -1 */
+    public static long ordinalOf(String employeeId) {
+        if (employeeId == null || employeeId.isEmpty() || employeeId.length() > 18) {
+            return -1;
+        }
+        long number = 0;
+        for (int i = 0; i < employeeId.length(); i++) {
+            char c = employeeId.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        long ordinal = number - FIRST_EMPLOYEE_NUMBER;
+        return ordinal >= 0 && employeeId(ordinal).equals(employeeId) ? ordinal : -1;
+    }
+
+    public Employee create(long ordinal) {
+        SplittableRandom random = new SplittableRandom(mix64(seed + ordinal * GOLDEN_GAMMA));
+
+        Employee emp = new Employee();
+        emp.setEmployeeId(employeeId(ordinal));
+        emp.setFirstName(EmployeeValuePools.pick(pools.firstNames, random));
+        emp.setLastName(EmployeeValuePools.pick(pools.lastNames, random));
+        emp.setMiddleName(random.nextBoolean() ? EmployeeValuePools.pick(pools.firstNames, random) : "");
+        // 20~60세
+        emp.setBirthDate(referenceDate.minusYears(20).minusDays(random.nextInt(40 * 365)));
+        emp.setGender(random.nextBoolean() ? "M" : "F");
+        emp.setNationality(EmployeeValuePools.pick(pools.countryCodes, random));
+        emp.setMaritalStatus(MARITAL_STATUSES[random.nextInt(MARITAL_STATUSES.length)]);
+        emp.setPosition(EmployeeValuePools.pick(pools.positions, random));
+        emp.setJobTitle(EmployeeValuePools.pick(pools.jobTitles, random));
+
+        int dept = random.nextInt(DEPARTMENT_NAMES.length);
+        emp.setDepartment(DEPARTMENT_CODES[dept]);
+        emp.setDepartmentName(DEPARTMENT_NAMES[dept]);
+
+        emp.setRoles(pickRoles(random, 1 + random.nextInt(3)));
+
+        emp.setHireDate(referenceDate.minusDays(1 + random.nextInt(5000)));
+        emp.setTerminationDate(random.nextBoolean() ? referenceDate.plusDays(1 + random.nextInt(1000)) : null);
+
+        emp.setWorkEmail(EmployeeValuePools.pick(pools.englishFirstNames, random) + "."
+                + EmployeeValuePools.pick(pools.englishLastNames, random) + "@company.com");
+
+        emp.setWorkPhone(EmployeeValuePools.pick(pools.workPhones, random));
+        emp.setMobilePhone(EmployeeValuePools.pick(pools.mobilePhones, random));
+        emp.setAddress(EmployeeValuePools.pick(pools.addresses, random));
+        emp.setBankAccount(digits(random, 12));
+        emp.setTaxId(digits(random, 9));
+        return emp;
+    }
+
+    /** 전체 역할 중 서로 다른 count 개 (부분 Fisher-Yates). 저장된 직원(@OrderBy)과 같이 roleId 순서로 담는다 */
+    private Set<Role> pickRoles(SplittableRandom random, int count) {
+        int n = roles.length;
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        int size = Math.min(count, n);
+        for (int i = 0; i < size; i++) {
+            int j = i + random.nextInt(n - i);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        Arrays.sort(order, 0, size);
+        Set<Role> picked = new LinkedHashSet<>();
+        for (int i = 0; i < size; i++) {
+            picked.add(roles[order[i]]);
+        }
+        return picked;
+    }
+
+    private static String digits(SplittableRandom random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('0' + random.nextInt(10));
+        }
+        return new String(chars);
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
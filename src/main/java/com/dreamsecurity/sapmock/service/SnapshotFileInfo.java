@@ -0,0 +1,28 @@
+package com.dreamsecurity.sapmock.service;
+
+/**
+ * 저장한 스냅샷 파일의 요약 (POST /sap/mock/snapshot 응답).
+ */
+public class SnapshotFileInfo {
+
+    private final String path;
+    private final int employees;
+    private final long bytes;
+    private final long sequence;
+    private final long elapsedMillis;
+
+    public SnapshotFileInfo(String path, int employees, long bytes, long sequence, long elapsedMillis) {
+        this.path = path;
+        this.employees = employees;
+        this.bytes = bytes;
+        this.sequence = sequence;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public String getPath() { return path; }
+    public int getEmployees() { return employees; }
+    public long getBytes() { return bytes; }
+    /** 파일에 담긴 데이터셋에 반영된 마지막 변경 기록 번호 */
+    public long getSequence() { return sequence; }
+    public long getElapsedMillis() { return elapsedMillis; }
+}
@@ -0,0 +1,102 @@
+package com.dreamsecurity.sapmock.sort;
+
+import com.dreamsecurity.sapmock.filter.EmployeeField;
+import com.dreamsecurity.sapmock.model.Employee;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 정규화된 정렬 순서. 항상 employeeId 키로 끝나므로 전체 순서가 유일하게 정해지고,
+ * 그래서 마지막으로 보낸 행의 키 값들(커서)만으로 다음 페이지의 시작 위치를 정할 수 있다.
+ *
+ * 값 비교는 String/LocalDate 의 자연 순서를 따르며 null 은 가장 작은 값으로 본다 (H2 기본 정렬과 같다).
+ */
+public final class EmployeeOrder {
+
+    /** $orderby 가 없을 때의 순서 (employeeId 오름차순) */
+    public static final EmployeeOrder NATURAL = of(Collections.emptyList());
+
+    private final List<SortKey> keys;
+
+    private EmployeeOrder(List<SortKey> keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * 요청한 키들로 순서를 만든다. employeeId 는 유일하므로 그 뒤의 키는 버리고, 없으면 오름차순으로 덧붙인다.
+     */
+    public static EmployeeOrder of(List<SortKey> requested) {
+        List<SortKey> keys = new ArrayList<>();
+        for (SortKey key : requested) {
+            if (keys.stream().anyMatch(k -> k.field() == key.field())) {
+                continue;
+            }
+            keys.add(key);
+            if (key.field() == EmployeeField.EMPLOYEE_ID) {
+                return new EmployeeOrder(Collections.unmodifiableList(keys));
+            }
+        }
+        keys.add(new SortKey(EmployeeField.EMPLOYEE_ID, false));
+        return new EmployeeOrder(Collections.unmodifiableList(keys));
+    }
+
+    public List<SortKey> keys() {
+        return keys;
+    }
+
+    public SortKey primary() {
+        return keys.get(0);
+    }
+
+    public List<EmployeeField> fields() {
+        return keys.stream().map(SortKey::field).collect(Collectors.toList());
+    }
+
+    /** employeeId 오름차순이면 true. 저장소 순번 순서와 같다 */
+    public boolean isNatural() {
+        return keys.size() == 1 && !keys.get(0).isDescending();
+    }
+
+    /** 직원의 정렬 키 값들 (커서) */
+    public Object[] valuesOf(Employee employee) {
+        Object[] values = new Object[keys.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = keys.get(i).field().get(employee);
+        }
+        return values;
+    }
+
+    /** 두 커서를 이 순서로 비교한다. from 번째 키부터 비교한다 */
+    public int compare(Object[] a, Object[] b, int from) {
+        for (int i = from; i < keys.size(); i++) {
+            int result = compareValues(a[i], b[i]);
+            if (result != 0) {
+                return keys.get(i).isDescending() ? -result : result;
+            }
+        }
+        return 0;
+    }
+
+    /** 오름차순 기준 값 비교. null 이 가장 작다 */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static int compareValues(Object a, Object b) {
+        if (a == b) {
+            return 0;
+        }
+        if (a == null) {
+            return -1;
+        }
+        if (b == null) {
+            return 1;
+        }
+        return ((Comparable) a).compareTo(b);
+    }
+
+    @Override
+    public String toString() {
+        return keys.stream().map(SortKey::toString).collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,30 @@
+package com.dreamsecurity.sapmock.sort;
+
+import com.dreamsecurity.sapmock.filter.EmployeeField;
+
+/**
+ * $orderby 의 정렬 키 하나 (필드와 방향).
+ */
+public final class SortKey {
+
+    private final EmployeeField field;
+    private final boolean descending;
+
+    public SortKey(EmployeeField field, boolean descending) {
+        this.field = field;
+        this.descending = descending;
+    }
+
+    public EmployeeField field() {
+        return field;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    @Override
+    public String toString() {
+        return field.property() + (descending ? " desc" : " asc");
+    }
+}
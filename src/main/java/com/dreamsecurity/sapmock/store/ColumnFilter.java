@@ -0,0 +1,107 @@
+package com.dreamsecurity.sapmock.store;
+
+import com.dreamsecurity.sapmock.filter.ComparisonOperator;
+import com.dreamsecurity.sapmock.filter.EmployeeField;
+import com.dreamsecurity.sapmock.filter.FieldType;
+import com.dreamsecurity.sapmock.filter.FilterExpression;
+
+import java.time.LocalDate;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * 직원 객체를 만들지 않고 순번으로 $filter 를 평가하는 조건을 만든다 (columnar, offheap 저장소 공용).
+ * and/or/not 은 여기서 합치고, 비교식은 저장소가 필드별로 값을 읽는 방법만 알려 준다.
+ * 만든 조건은 상태가 없으므로 여러 스레드에서 써도 된다.
+ */
+abstract class ColumnFilter implements FilterExpression.Visitor<IntPredicate> {
+
+    /** 날짜 컬럼에서 값이 없음을 뜻하는 epoch day */
+    static final int NULL_DAY = Integer.MIN_VALUE;
+    /** 사전 코드 자리에서 값이 없음을 뜻하는 코드 */
+    static final int NULL_CODE = -1;
+
+    /** field(날짜) 의 순번별 epoch day. 없으면 NULL_DAY */
+    protected abstract IntUnaryOperator days(EmployeeField field);
+
+    /** field(문자열) 비교식의 조건 */
+    protected abstract IntPredicate strings(EmployeeField field, FilterExpression.Comparison comparison);
+
+    @Override
+    public IntPredicate visitAnd(FilterExpression.And and) {
+        IntPredicate[] operands = and.operands().stream().map(o -> o.accept(this)).toArray(IntPredicate[]::new);
+        return ordinal -> {
+            for (IntPredicate operand : operands) {
+                if (!operand.test(ordinal)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+    @Override
+    public IntPredicate visitOr(FilterExpression.Or or) {
+        IntPredicate[] operands = or.operands().stream().map(o -> o.accept(this)).toArray(IntPredicate[]::new);
+        return ordinal -> {
+            for (IntPredicate operand : operands) {
+                if (operand.test(ordinal)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    @Override
+    public IntPredicate visitNot(FilterExpression.Not not) {
+        return not.operand().accept(this).negate();
+    }
+
+    @Override
+    public IntPredicate visitComparison(FilterExpression.Comparison comparison) {
+        EmployeeField field = comparison.field();
+        if (field.type() == FieldType.DATE) {
+            return dateComparison(days(field), comparison);
+        }
+        return strings(field, comparison);
+    }
+
+    /** 날짜는 epoch day 정수로 비교한다 */
+    private static IntPredicate dateComparison(IntUnaryOperator days, FilterExpression.Comparison comparison) {
+        ComparisonOperator operator = comparison.operator();
+        if (comparison.operand() == null) {
+            return operator == ComparisonOperator.EQ
+                    ? ordinal -> days.applyAsInt(ordinal) == NULL_DAY
+                    : ordinal -> days.applyAsInt(ordinal) != NULL_DAY;
+        }
+        int target = (int) ((LocalDate) comparison.operand()).toEpochDay();
+        return ordinal -> {
+            int day = days.applyAsInt(ordinal);
+            return day == NULL_DAY ? operator == ComparisonOperator.NE : operator.accepts(Integer.compare(day, target));
+        };
+    }
+
+    /**
+     * 사전 인코딩 컬럼의 비교식. 사전 값마다 한 번씩만 비교해 둔 코드별 결과표를 본다.
+     *
+     * @param codes  순번별 사전 코드. 값이 없으면 NULL_CODE, 사전에 없는 값이면 그 밖의 음수
+     * @param values 사전에 없는 값을 읽는 방법
+     */
+    static IntPredicate dictionaryComparison(String[] dictionary, IntUnaryOperator codes, IntFunction<String> values,
+                                             FilterExpression.Comparison comparison) {
+        boolean[] matches = new boolean[dictionary.length];
+        for (int code = 0; code < dictionary.length; code++) {
+            matches[code] = comparison.matchesValue(dictionary[code]);
+        }
+        boolean matchesNull = comparison.matchesValue(null);
+        return ordinal -> {
+            int code = codes.applyAsInt(ordinal);
+            if (code >= 0) {
+                return matches[code];
+            }
+            return code == NULL_CODE ? matchesNull : comparison.matchesValue(values.apply(ordinal));
+        };
+    }
+}
@@ -0,0 +1,222 @@
+package com.dreamsecurity.sapmock.store;
+
+import com.dreamsecurity.sapmock.filter.EmployeeField;
+import com.dreamsecurity.sapmock.filter.FieldType;
+import com.dreamsecurity.sapmock.filter.FilterExpression;
+import com.dreamsecurity.sapmock.model.Employee;
+import com.dreamsecurity.sapmock.model.Role;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * 직원을 엔티티 객체가 아니라 필드별 컬럼으로 들고 있는 저장소 (sap.store.engine=columnar). 적재 후에는 변경하지 않는다.
+ *
+ * 문자열은 StringColumn(사전 코드 short[] 또는 UTF-8 바이트 배열), 날짜는 epoch day int[],
+ * 역할은 직원마다 역할 조합 코드 short 하나(같은 조합은 하나의 역할 목록을 공유)로 둔다.
+ * Employee 는 get() 을 부를 때만 만들며, $filter 는 필요한 컬럼만 읽어 평가한다.
+ */
+public class ColumnarEmployeeStore implements EmployeeStore {
+
+    private static final int NULL_DAY = ColumnFilter.NULL_DAY;
+    private static final EmployeeField[] FIELDS = EmployeeField.values();
+
+    private final int size;
+    /** 필드 순서(EmployeeField.ordinal)별 컬럼. 날짜 필드 자리는 null */
+    private final StringColumn[] strings;
+    /** 필드 순서별 epoch day 컬럼. 날짜가 아닌 필드 자리는 null */
+    private final int[][] dates;
+    private final StringColumn employeeIds;
+    private final short[] roleSetCodes;
+    private final List<Set<Role>> roleSets;
+
+    private ColumnarEmployeeStore(int size, StringColumn[] strings, int[][] dates,
+                                  short[] roleSetCodes, List<Set<Role>> roleSets) {
+        this.size = size;
+        this.strings = strings;
+        this.dates = dates;
+        this.employeeIds = strings[EmployeeField.EMPLOYEE_ID.ordinal()];
+        this.roleSetCodes = roleSetCodes;
+        this.roleSets = roleSets;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Employee get(int ordinal) {
+        Employee e = new Employee();
+        e.setEmployeeId(string(ordinal, EmployeeField.EMPLOYEE_ID));
+        e.setFirstName(string(ordinal, EmployeeField.FIRST_NAME));
+        e.setLastName(string(ordinal, EmployeeField.LAST_NAME));
+        e.setMiddleName(string(ordinal, EmployeeField.MIDDLE_NAME));
+        e.setBirthDate(date(ordinal, EmployeeField.BIRTH_DATE));
+        e.setGender(string(ordinal, EmployeeField.GENDER));
+        e.setNationality(string(ordinal, EmployeeField.NATIONALITY));
+        e.setMaritalStatus(string(ordinal, EmployeeField.MARITAL_STATUS));
+        e.setPosition(string(ordinal, EmployeeField.POSITION));
+        e.setJobTitle(string(ordinal, EmployeeField.JOB_TITLE));
+        e.setDepartment(string(ordinal, EmployeeField.DEPARTMENT));
+        e.setDepartmentName(string(ordinal, EmployeeField.DEPARTMENT_NAME));
+        e.setHireDate(date(ordinal, EmployeeField.HIRE_DATE));
+        e.setTerminationDate(date(ordinal, EmployeeField.TERMINATION_DATE));
+        e.setWorkEmail(string(ordinal, EmployeeField.WORK_EMAIL));
+        e.setWorkPhone(string(ordinal, EmployeeField.WORK_PHONE));
+        e.setMobilePhone(string(ordinal, EmployeeField.MOBILE_PHONE));
+        e.setAddress(string(ordinal, EmployeeField.ADDRESS));
+        e.setBankAccount(string(ordinal, EmployeeField.BANK_ACCOUNT));
+        e.setTaxId(string(ordinal, EmployeeField.TAX_ID));
+        e.setRoles(new LinkedHashSet<>(roles(ordinal)));
+        return e;
+    }
+
+    @Override
+    public Object value(int ordinal, EmployeeField field) {
+        return field.type() == FieldType.DATE ? date(ordinal, field) : string(ordinal, field);
+    }
+
+    @Override
+    public Set<Role> roles(int ordinal) {
+        return roleSets.get(roleSetCodes[ordinal] & 0xFFFF);
+    }
+
+    private String string(int ordinal, EmployeeField field) {
+        return strings[field.ordinal()].get(ordinal);
+    }
+
+    private LocalDate date(int ordinal, EmployeeField field) {
+        int day = dates[field.ordinal()][ordinal];
+        return day == NULL_DAY ? null : LocalDate.ofEpochDay(day);
+    }
+
+    @Override
+    public int ordinalOf(String employeeId) {
+        int ordinal = search(employeeId);
+        return ordinal < 0 ? -1 : ordinal;
+    }
+
+    @Override
+    public int ordinalAfter(String employeeId) {
+        int ordinal = search(employeeId);
+        return ordinal >= 0 ? ordinal + 1 : -(ordinal + 1);
+    }
+
+    /** Arrays.binarySearch 와 같은 규칙의 사번 이진 탐색 */
+    private int search(String employeeId) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int compared = employeeIds.get(mid).compareTo(employeeId);
+            if (compared < 0) {
+                low = mid + 1;
+            } else if (compared > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * 직원을 만들지 않고 컬럼 값으로 평가하는 조건.
+     * 사전 인코딩 컬럼은 사전 값마다 한 번씩만 비교해 둔 코드별 결과표를 보고, 날짜는 epoch day 정수로 비교한다.
+     */
+    @Override
+    public IntPredicate filter(FilterExpression expression) {
+        return expression.accept(new ColumnFilter() {
+            @Override
+            protected IntUnaryOperator days(EmployeeField field) {
+                int[] days = dates[field.ordinal()];
+                return ordinal -> days[ordinal];
+            }
+
+            @Override
+            protected IntPredicate strings(EmployeeField field, FilterExpression.Comparison comparison) {
+                StringColumn column = strings[field.ordinal()];
+                String[] dictionary = column.dictionary();
+                if (dictionary == null) {
+                    return ordinal -> comparison.matchesValue(column.get(ordinal));
+                }
+                return dictionaryComparison(dictionary, column::code, column::get, comparison);
+            }
+        });
+    }
+
+    /**
+     * 직원 행을 employeeId 오름차순으로 하나씩 받아 저장소를 만든다.
+     * 역할은 역할 ID 목록으로 받아, 같은 조합이면 같은 코드로 바꿔 둔다.
+     */
+    public static class Builder implements EmployeeStoreBuilder<ColumnarEmployeeStore> {
+
+        private final StringColumn.Builder[] strings = new StringColumn.Builder[FIELDS.length];
+        private final int[][] dates = new int[FIELDS.length][];
+        private short[] roleSetCodes = new short[1024];
+        private final RoleSets roleSets = new RoleSets();
+        private String lastEmployeeId;
+        private int size;
+
+        public Builder() {
+            for (EmployeeField field : FIELDS) {
+                if (field.type() == FieldType.DATE) {
+                    dates[field.ordinal()] = new int[1024];
+                } else {
+                    strings[field.ordinal()] = new StringColumn.Builder();
+                }
+            }
+        }
+
+        @Override
+        public Builder add(Object[] row, List<String> roleIds) {
+            String employeeId = (String) row[EmployeeField.EMPLOYEE_ID.ordinal()];
+            if (lastEmployeeId != null && lastEmployeeId.compareTo(employeeId) >= 0) {
+                throw new IllegalArgumentException("직원은 employeeId 오름차순으로 넣어야 합니다: "
+                        + lastEmployeeId + ", " + employeeId);
+            }
+            lastEmployeeId = employeeId;
+            if (size == roleSetCodes.length) {
+                roleSetCodes = Arrays.copyOf(roleSetCodes, size * 2);
+            }
+            for (EmployeeField field : FIELDS) {
+                int i = field.ordinal();
+                if (field.type() == FieldType.DATE) {
+                    if (size == dates[i].length) {
+                        dates[i] = Arrays.copyOf(dates[i], size * 2);
+                    }
+                    LocalDate date = (LocalDate) row[i];
+                    dates[i][size] = date == null ? NULL_DAY : (int) date.toEpochDay();
+                } else {
+                    strings[i].add((String) row[i]);
+                }
+            }
+            roleSetCodes[size] = (short) roleSets.code(roleIds);
+            size++;
+            return this;
+        }
+
+        @Override
+        public ColumnarEmployeeStore build(Map<String, Role> roles) {
+            StringColumn[] stringColumns = new StringColumn[FIELDS.length];
+            int[][] dateColumns = new int[FIELDS.length][];
+            for (EmployeeField field : FIELDS) {
+                int i = field.ordinal();
+                if (field.type() == FieldType.DATE) {
+                    dateColumns[i] = Arrays.copyOf(dates[i], size);
+                } else {
+                    stringColumns[i] = strings[i].build();
+                }
+            }
+            return new ColumnarEmployeeStore(size, stringColumns, dateColumns,
+                    Arrays.copyOf(roleSetCodes, size), roleSets.resolve(roles));
+        }
+    }
+}
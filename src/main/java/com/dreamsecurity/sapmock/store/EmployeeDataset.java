@@ -0,0 +1,471 @@
+package com.dreamsecurity.sapmock.store;
+
+import com.dreamsecurity.sapmock.filter.ComparisonOperator;
+import com.dreamsecurity.sapmock.filter.CompiledFilter;
+import com.dreamsecurity.sapmock.filter.EmployeeField;
+import com.dreamsecurity.sapmock.filter.FilterExpression;
+import com.dreamsecurity.sapmock.index.EmployeeIndexes;
+import com.dreamsecurity.sapmock.index.IndexPlan;
+import com.dreamsecurity.sapmock.index.SortPermutation;
+import com.dreamsecurity.sapmock.model.Employee;
+import com.dreamsecurity.sapmock.model.Role;
+import com.dreamsecurity.sapmock.sort.EmployeeOrder;
+import com.dreamsecurity.sapmock.sort.SortKey;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * 적재가 끝난 저장소와 그 위의 인덱스. 불변이며, 새로 적재할 때는 통째로 교체된다.
+ */
+public class EmployeeDataset {
+
+    private final EmployeeStore store;
+    private final EmployeeIndexes indexes;
+
+    public EmployeeDataset(EmployeeStore store) {
+        this(store, EmployeeIndexes.build(store));
+    }
+
+    private EmployeeDataset(EmployeeStore store, EmployeeIndexes indexes) {
+        this.store = store;
+        this.indexes = indexes;
+    }
+
+    /**
+     * 인덱스 없이 저장소를 순서대로 훑어 응답하는 데이터셋.
+     * 가상 저장소처럼 전체를 미리 읽어 인덱스를 만들 수 없는 경우에 쓴다.
+     */
+    public static EmployeeDataset unindexed(EmployeeStore store) {
+        return new EmployeeDataset(store, null);
+    }
+
+    public EmployeeStore store() {
+        return store;
+    }
+
+    /** 인덱스. unindexed 데이터셋이면 null */
+    public EmployeeIndexes indexes() {
+        return indexes;
+    }
+
+    /**
+     * order 순서에서 커서 after(마지막으로 보낸 행의 정렬 키 값) 다음부터 skip 번째 이후 top 건의
+     * columns 에 해당하는 값만 columns 순서의 배열로 넘긴다 ($select).
+     * after 가 null 이면 처음부터. 첫 정렬 키에 정렬 순번 배열이 있으면 요청마다 전체를 정렬하지 않는다.
+     * 필터 평가에 이미 읽은 직원이 아니면 Employee 를 만들지 않고 저장소에서 필요한 값만 읽는다.
+     *
+     * @return 넘긴 행 수
+     */
+    public int forEachRowInPage(CompiledFilter filter, EmployeeOrder order, Object[] after, int skip, int top,
+                                List<EmployeeField> columns, Consumer<Object[]> action) {
+        return visitPage(filter, order, after, skip, top, (ordinal, loaded) -> {
+            Object[] row = new Object[columns.size()];
+            for (int i = 0; i < row.length; i++) {
+                EmployeeField field = columns.get(i);
+                row[i] = loaded != null ? field.get(loaded) : store.value(ordinal, field);
+            }
+            action.accept(row);
+        });
+    }
+
+    /**
+     * order 로 페이징할 수 있는지. 인덱스가 없는 데이터셋(virtual)은 전체를 정렬할 수 없으므로 employeeId 순서만 지원한다.
+     */
+    public boolean canOrderBy(EmployeeOrder order) {
+        return indexes != null || order.primary().field() == EmployeeField.EMPLOYEE_ID;
+    }
+
+    /**
+     * 페이지에 든 직원의 순번을 넘긴다.
+     * 필터 평가를 위해 이미 직원을 읽었다면 그 객체도 함께 넘기고, 인덱스만으로 확정된 경우에는 null 을 넘긴다.
+     */
+    @FunctionalInterface
+    private interface PageVisitor {
+        void visit(int ordinal, Employee loaded);
+    }
+
+    private int visitPage(CompiledFilter filter, EmployeeOrder order, Object[] after, int skip, int top,
+                          PageVisitor visitor) {
+        if (order.isNatural()) {
+            int fromOrdinal = after == null ? 0 : store.ordinalAfter((String) after[0]);
+            return visitPage(filter, fromOrdinal, skip, top, visitor);
+        }
+        if (top <= 0) {
+            return 0;
+        }
+        if (!canOrderBy(order)) {
+            throw new IllegalArgumentException("인덱스가 없는 데이터셋은 employeeId 순서만 지원합니다: " + order);
+        }
+        Matcher matcher = new Matcher(filter);
+        PageEmitter page = new PageEmitter(skip, top, visitor);
+        EmployeeField primary = order.primary().field();
+        SortPermutation permutation = indexes == null ? null : indexes.sortPermutation(primary);
+        if (primary == EmployeeField.EMPLOYEE_ID) {
+            visitDescending(matcher, after, page);
+        } else if (permutation != null) {
+            visitPermutation(permutation, order, matcher, after, page);
+        } else {
+            // 정렬 순번 배열이 없는 키는 조건에 맞는 행만 모아 요청 시점에 정렬한다
+            List<Object[]> rows = new ArrayList<>();
+            for (int ordinal = matcher.nextCandidate(0); ordinal >= 0; ordinal = matcher.nextCandidate(ordinal + 1)) {
+                if (matcher.matches(ordinal)) {
+                    rows.add(sortRow(order, ordinal));
+                }
+            }
+            emitSorted(rows, order, after, page);
+        }
+        return page.emitted;
+    }
+
+    /** employeeId 내림차순: 커서 바로 앞 순번부터 거꾸로 읽는다 */
+    private void visitDescending(Matcher matcher, Object[] after, PageEmitter page) {
+        int start = store.size() - 1;
+        if (after != null) {
+            String afterId = (String) after[0];
+            int ordinal = store.ordinalOf(afterId);
+            start = (ordinal >= 0 ? ordinal : store.ordinalAfter(afterId)) - 1;
+        }
+        for (int ordinal = matcher.previousCandidate(start); ordinal >= 0; ordinal = matcher.previousCandidate(ordinal - 1)) {
+            if (matcher.matches(ordinal) && !page.offer(ordinal, matcher.loaded)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 첫 정렬 키의 정렬 순번 배열을 값 그룹 단위로 읽는다.
+     * 그룹 안은 이미 employeeId 오름차순이므로, 두 번째 이후 키가 있을 때만 그 그룹의 결과를 정렬한다.
+     */
+    private void visitPermutation(SortPermutation permutation, EmployeeOrder order, Matcher matcher,
+                                  Object[] after, PageEmitter page) {
+        boolean descending = order.primary().isDescending();
+        boolean sortWithinGroup = order.keys().size() > 2 || order.keys().get(1).isDescending();
+        int group = descending ? permutation.groupCount() - 1 : 0;
+        boolean inAfterGroup = false;
+        if (after != null) {
+            int found = permutation.findGroup(after[0]);
+            if (found >= 0) {
+                group = found;
+                inAfterGroup = true;
+            } else {
+                group = descending ? -(found + 1) - 1 : -(found + 1);
+            }
+        }
+        int afterBound = after == null ? 0 : store.ordinalAfter((String) after[after.length - 1]);
+
+        for (; group >= 0 && group < permutation.groupCount(); group += descending ? -1 : 1) {
+            int end = permutation.groupEnd(group);
+            if (sortWithinGroup) {
+                List<Object[]> rows = new ArrayList<>();
+                for (int position = permutation.groupStart(group); position < end; position++) {
+                    int ordinal = permutation.ordinalAt(position);
+                    if (matcher.matches(ordinal)) {
+                        rows.add(sortRow(order, ordinal));
+                    }
+                }
+                if (!emitSorted(rows, order, inAfterGroup ? after : null, page)) {
+                    return;
+                }
+            } else {
+                for (int position = permutation.groupStart(group); position < end; position++) {
+                    int ordinal = permutation.ordinalAt(position);
+                    if (inAfterGroup && ordinal < afterBound) {
+                        continue;
+                    }
+                    if (matcher.matches(ordinal) && !page.offer(ordinal, matcher.loaded)) {
+                        return;
+                    }
+                }
+            }
+            inAfterGroup = false;
+        }
+    }
+
+    /** 정렬 키 값들 뒤에 순번을 덧붙인 행 */
+    private Object[] sortRow(EmployeeOrder order, int ordinal) {
+        List<SortKey> keys = order.keys();
+        Object[] row = new Object[keys.size() + 1];
+        for (int i = 0; i < keys.size(); i++) {
+            row[i] = store.value(ordinal, keys.get(i).field());
+        }
+        row[keys.size()] = ordinal;
+        return row;
+    }
+
+    /** @return 페이지가 아직 차지 않았으면 true */
+    private boolean emitSorted(List<Object[]> rows, EmployeeOrder order, Object[] after, PageEmitter page) {
+        rows.sort((a, b) -> order.compare(a, b, 0));
+        int ordinalColumn = order.keys().size();
+        for (Object[] row : rows) {
+            if (after != null && order.compare(row, after, 0) <= 0) {
+                continue;
+            }
+            if (!page.offer((Integer) row[ordinalColumn], null)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** 순번 하나가 $filter 를 만족하는지. 인덱스 후보 집합이 있으면 먼저 그것으로 거른다 */
+    private final class Matcher {
+
+        private final RowTest test;
+        private final RoaringBitmap candidates;
+        private final boolean exact;
+        /** 마지막 matches 호출에서 필터 평가를 위해 읽은 직원. 읽지 않았으면 null */
+        private Employee loaded;
+
+        Matcher(CompiledFilter filter) {
+            this.test = new RowTest(filter);
+            if (indexes == null || filter.isEmpty()) {
+                this.candidates = null;
+                this.exact = filter.isEmpty();
+            } else {
+                IndexPlan plan = indexes.plan(filter.expression());
+                this.candidates = plan.candidates();
+                this.exact = plan.isExact();
+            }
+        }
+
+        boolean matches(int ordinal) {
+            loaded = null;
+            if (candidates != null && !candidates.contains(ordinal)) {
+                return false;
+            }
+            if (exact) {
+                return true;
+            }
+            boolean matches = test.test(ordinal);
+            loaded = test.loaded;
+            return matches;
+        }
+
+        /** ordinal 이상인 첫 후보 순번. 없으면 -1 */
+        int nextCandidate(int ordinal) {
+            if (ordinal >= store.size()) {
+                return -1;
+            }
+            return candidates == null ? ordinal : (int) candidates.nextValue(ordinal);
+        }
+
+        /** ordinal 이하인 마지막 후보 순번. 없으면 -1 */
+        int previousCandidate(int ordinal) {
+            if (ordinal < 0) {
+                return -1;
+            }
+            return candidates == null ? ordinal : (int) candidates.previousValue(ordinal);
+        }
+    }
+
+    /**
+     * 순번 하나를 $filter 로 평가한다. 저장소가 컬럼으로 평가할 수 있으면(columnar) 직원을 만들지 않고,
+     * 아니면 직원을 읽어 평가한 뒤 그 직원을 loaded 에 남겨 페이지 출력에 다시 쓴다. 한 스레드에서만 쓴다.
+     */
+    private final class RowTest {
+
+        private final CompiledFilter filter;
+        private final IntPredicate columns;
+        private Employee loaded;
+
+        RowTest(CompiledFilter filter) {
+            this.filter = filter;
+            this.columns = filter.isEmpty() ? null : store.filter(filter.expression());
+        }
+
+        boolean test(int ordinal) {
+            if (columns != null) {
+                return columns.test(ordinal);
+            }
+            loaded = store.get(ordinal);
+            return filter.test(loaded);
+        }
+    }
+
+    /** 여러 스레드에서 써도 되는 $filter 평가 조건 (건수 세기용) */
+    private IntPredicate predicate(CompiledFilter filter) {
+        IntPredicate columns = filter.isEmpty() ? null : store.filter(filter.expression());
+        return columns != null ? columns : ordinal -> filter.test(store.get(ordinal));
+    }
+
+    /** skip 건을 건너뛴 뒤 top 건까지 visitor 에 넘긴다 */
+    private static final class PageEmitter {
+
+        private final int top;
+        private final PageVisitor visitor;
+        private int toSkip;
+        private int emitted;
+
+        PageEmitter(int skip, int top, PageVisitor visitor) {
+            this.toSkip = skip;
+            this.top = top;
+            this.visitor = visitor;
+        }
+
+        /** @return 더 받을 수 있으면 true */
+        boolean offer(int ordinal, Employee loaded) {
+            if (toSkip > 0) {
+                toSkip--;
+                return true;
+            }
+            visitor.visit(ordinal, loaded);
+            return ++emitted < top;
+        }
+    }
+
+    private int visitPage(CompiledFilter filter, int fromOrdinal, int skip, int top, PageVisitor visitor) {
+        if (top <= 0 || fromOrdinal >= store.size()) {
+            return 0;
+        }
+        if (indexes == null) {
+            return scanPage(filter, fromOrdinal, skip, top, visitor);
+        }
+        IndexPlan plan = indexes.plan(filter.expression());
+        RoaringBitmap candidates = plan.candidates();
+        int emitted = 0;
+
+        if (plan.isExact()) {
+            long start = (fromOrdinal == 0 ? 0 : candidates.rank(fromOrdinal - 1)) + (long) skip;
+            if (start >= candidates.getLongCardinality()) {
+                return 0;
+            }
+            PeekableIntIterator it = candidates.getIntIterator();
+            it.advanceIfNeeded(candidates.select((int) start));
+            while (it.hasNext() && emitted < top) {
+                visitor.visit(it.next(), null);
+                emitted++;
+            }
+            return emitted;
+        }
+
+        int skipped = 0;
+        RowTest test = new RowTest(filter);
+        PeekableIntIterator it = candidates.getIntIterator();
+        it.advanceIfNeeded(fromOrdinal);
+        while (it.hasNext() && emitted < top) {
+            int ordinal = it.next();
+            if (!test.test(ordinal)) {
+                continue;
+            }
+            if (skipped < skip) {
+                skipped++;
+            } else {
+                visitor.visit(ordinal, test.loaded);
+                emitted++;
+            }
+        }
+        return emitted;
+    }
+
+    private int scanPage(CompiledFilter filter, int fromOrdinal, int skip, int top, PageVisitor visitor) {
+        int emitted = 0;
+        if (filter.isEmpty()) {
+            for (long ordinal = (long) fromOrdinal + skip; ordinal < store.size() && emitted < top; ordinal++) {
+                visitor.visit((int) ordinal, null);
+                emitted++;
+            }
+            return emitted;
+        }
+        // employeeId eq '...' 는 전체를 훑지 않고 순번으로 바로 찾는다
+        FilterExpression.Comparison lookup = idLookup(filter);
+        if (lookup != null) {
+            int ordinal = lookup.operand() == null ? -1 : store.ordinalOf((String) lookup.operand());
+            if (ordinal < fromOrdinal || skip > 0) {
+                return 0;
+            }
+            visitor.visit(ordinal, null);
+            return 1;
+        }
+
+        int skipped = 0;
+        RowTest test = new RowTest(filter);
+        for (int ordinal = fromOrdinal; ordinal < store.size() && emitted < top; ordinal++) {
+            if (!test.test(ordinal)) {
+                continue;
+            }
+            if (skipped < skip) {
+                skipped++;
+            } else {
+                visitor.visit(ordinal, test.loaded);
+                emitted++;
+            }
+        }
+        return emitted;
+    }
+
+    /** filter 가 employeeId eq '...' 하나뿐이면 그 비교식, 아니면 null */
+    private static FilterExpression.Comparison idLookup(CompiledFilter filter) {
+        FilterExpression expression = filter.expression();
+        if (expression instanceof FilterExpression.Comparison) {
+            FilterExpression.Comparison comparison = (FilterExpression.Comparison) expression;
+            if (comparison.field() == EmployeeField.EMPLOYEE_ID && comparison.operator() == ComparisonOperator.EQ) {
+                return comparison;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * $filter 에 맞는 직원 수. 인덱스만으로 결과가 확정되면 비트맵 카디널리티로 바로 답하고,
+     * 그렇지 않으면 후보(또는 전체)를 훑되 직원 목록을 모으지 않는다.
+     */
+    public long count(CompiledFilter filter) {
+        if (filter.isEmpty()) {
+            return store.size();
+        }
+        if (indexes == null) {
+            if (idLookup(filter) != null) {
+                return scanPage(filter, 0, 0, 1, (ordinal, loaded) -> { });
+            }
+            // 인덱스가 없으면 전체를 평가해야 하므로 순번 구간을 나눠 병렬로 센다
+            return IntStream.range(0, store.size()).parallel()
+                    .filter(predicate(filter))
+                    .count();
+        }
+        IndexPlan plan = indexes.plan(filter.expression());
+        RoaringBitmap candidates = plan.candidates();
+        if (plan.isExact()) {
+            return candidates.getLongCardinality();
+        }
+        long count = 0;
+        IntPredicate predicate = predicate(filter);
+        PeekableIntIterator it = candidates.getIntIterator();
+        while (it.hasNext()) {
+            if (predicate.test(it.next())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public Employee findById(String employeeId) {
+        int ordinal = store.ordinalOf(employeeId);
+        return ordinal < 0 ? null : store.get(ordinal);
+    }
+
+    /** employeeId 직원의 역할. 없는 직원이면 null */
+    public Set<Role> findRolesById(String employeeId) {
+        int ordinal = store.ordinalOf(employeeId);
+        return ordinal < 0 ? null : store.roles(ordinal);
+    }
+
+    /** employeeId 직원의 columns 값. 없으면 null */
+    public Object[] findRowById(String employeeId, List<EmployeeField> columns) {
+        int ordinal = store.ordinalOf(employeeId);
+        if (ordinal < 0) {
+            return null;
+        }
+        Object[] row = new Object[columns.size()];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = store.value(ordinal, columns.get(i));
+        }
+        return row;
+    }
+}
@@ -0,0 +1,46 @@
+package com.dreamsecurity.sapmock.store;
+
+import com.dreamsecurity.sapmock.filter.EmployeeField;
+import com.dreamsecurity.sapmock.filter.FilterExpression;
+import com.dreamsecurity.sapmock.model.Employee;
+import com.dreamsecurity.sapmock.model.Role;
+
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+/**
+ * 메모리에 적재된 직원 데이터의 읽기 전용 뷰.
+ * 각 직원은 employeeId 문자열 오름차순으로 매겨진 0 부터의 순번(ordinal)으로 접근하며, 인덱스는 이 순번을 저장한다.
+ */
+public interface EmployeeStore {
+
+    int size();
+
+    Employee get(int ordinal);
+
+    /** employeeId 의 순번. 없으면 -1 */
+    int ordinalOf(String employeeId);
+
+    /**
+     * 저장소 순서에서 employeeId 바로 다음 자리의 순번 (keyset 페이징의 시작점).
+     * employeeId 가 저장소에 없어도 그 다음에 올 직원의 순번을 돌려주며, 끝을 지나면 size().
+     */
+    int ordinalAfter(String employeeId);
+
+    default Object value(int ordinal, EmployeeField field) {
+        return field.get(get(ordinal));
+    }
+
+    /** 직원의 역할. 수정하면 안 된다 */
+    default Set<Role> roles(int ordinal) {
+        return get(ordinal).getRoles();
+    }
+
+    /**
+     * 직원 객체를 만들지 않고 순번으로 expression 을 평가하는 조건.
+     * null 이면 지원하지 않는 것이므로 get() 으로 읽은 직원에 대해 평가한다.
+     */
+    default IntPredicate filter(FilterExpression expression) {
+        return null;
+    }
+}
@@ -0,0 +1,44 @@
+package com.dreamsecurity.sapmock.store;
+
+import com.dreamsecurity.sapmock.filter.EmployeeField;
+import com.dreamsecurity.sapmock.model.Role;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 직원 행을 employeeId 오름차순으로 하나씩 받아 저장소를 만드는 빌더 (columnar, offheap).
+ * 엔티티 목록 없이 DB 커서에서 바로 채울 수 있다.
+ */
+public interface EmployeeStoreBuilder<S extends EmployeeStore> {
+
+    /**
+     * @param row     EmployeeField.values() 순서의 값. employeeId 오름차순으로 넣어야 한다
+     * @param roleIds 직원의 역할 ID (역할 ID 순)
+     */
+    EmployeeStoreBuilder<S> add(Object[] row, List<String> roleIds);
+
+    /** 다른 저장소의 직원 전체를 순번 순서(employeeId 오름차순)로 넣는다 */
+    default EmployeeStoreBuilder<S> addAll(EmployeeStore source) {
+        EmployeeField[] fields = EmployeeField.values();
+        Object[] row = new Object[fields.length];
+        List<String> roleIds = new ArrayList<>();
+        for (int ordinal = 0; ordinal < source.size(); ordinal++) {
+            for (EmployeeField field : fields) {
+                row[field.ordinal()] = source.value(ordinal, field);
+            }
+            roleIds.clear();
+            for (Role role : source.roles(ordinal)) {
+                roleIds.add(role.getRoleId());
+            }
+            Collections.sort(roleIds);
+            add(row, roleIds);
+        }
+        return this;
+    }
+
+    /** roles: 역할 ID → 역할. 표에 없는 역할 ID 는 빠진다 */
+    S build(Map<String, Role> roles);
+}
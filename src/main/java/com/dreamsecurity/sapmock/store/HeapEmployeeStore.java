@@ -0,0 +1,47 @@
+package com.dreamsecurity.sapmock.store;
+
+import com.dreamsecurity.sapmock.model.Employee;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * JPA 엔티티를 그대로 배열로 들고 있는 저장소. 적재 후에는 변경하지 않는다.
+ */
+public class HeapEmployeeStore implements EmployeeStore {
+
+    private final Employee[] employees;
+    private final String[] employeeIds;
+
+    public HeapEmployeeStore(List<Employee> employees) {
+        this.employees = employees.toArray(new Employee[0]);
+        Arrays.sort(this.employees, Comparator.comparing(Employee::getEmployeeId));
+        this.employeeIds = new String[this.employees.length];
+        for (int i = 0; i < this.employees.length; i++) {
+            employeeIds[i] = this.employees[i].getEmployeeId();
+        }
+    }
+
+    @Override
+    public int size() {
+        return employees.length;
+    }
+
+    @Override
+    public Employee get(int ordinal) {
+        return employees[ordinal];
+    }
+
+    @Override
+    public int ordinalOf(String employeeId) {
+        int ordinal = Arrays.binarySearch(employeeIds, employeeId);
+        return ordinal < 0 ? -1 : ordinal;
+    }
+
+    @Override
+    public int ordinalAfter(String employeeId) {
+        int ordinal = Arrays.binarySearch(employeeIds, employeeId);
+        return ordinal >= 0 ? ordinal + 1 : -(ordinal + 1);
+    }
+}
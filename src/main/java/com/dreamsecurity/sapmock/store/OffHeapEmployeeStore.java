@@ -0,0 +1,422 @@
+package com.dreamsecurity.sapmock.store;
+
+import com.dreamsecurity.sapmock.filter.EmployeeField;
+import com.dreamsecurity.sapmock.filter.FieldType;
+import com.dreamsecurity.sapmock.filter.FilterExpression;
+import com.dreamsecurity.sapmock.model.Employee;
+import com.dreamsecurity.sapmock.model.Role;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * 직원을 힙 밖(direct ByteBuffer)에 고정 길이 레코드로 들고 있는 저장소 (sap.store.engine=offheap). 적재 후에는 변경하지 않는다.
+ *
+ * 레코드 하나는 [문자열 영역 위치 long][날짜 epoch day int ...][문자열 코드 short ...][역할 조합 코드 short] 이다.
+ * 문자열 코드는 필드별 작은 사전(힙, 필드당 DICTIONARY_LIMIT 개)의 코드이며, 사전에 없는 값은 INLINE_CODE 로 두고
+ * 값은 그 직원의 문자열 영역에 [길이 u16][UTF-8] 로 필드 순서대로 이어 쓴다.
+ * 레코드와 문자열 영역은 SEGMENT_BYTES 단위 세그먼트로 나뉘므로 직원 수가 int 바이트 범위를 넘어도 된다.
+ * 힙에는 사전과 역할 조합만 남으므로 직원 수와 관계없이 힙 사용량이 거의 일정하다.
+ * 직원(Employee)은 응답에 쓸 때만 레코드에서 만든다.
+ */
+public class OffHeapEmployeeStore implements EmployeeStore {
+
+    /** 세그먼트 크기의 log2 (64MB) */
+    static final int SEGMENT_SHIFT = 26;
+    static final int SEGMENT_BYTES = 1 << SEGMENT_SHIFT;
+    /** 필드별 사전에 넣는 고유 값 수. 이름, 부서, 전화번호 풀처럼 종류가 적은 값만 사전에 남는다 */
+    static final int DICTIONARY_LIMIT = 4096;
+    static final short NULL_CODE = (short) ColumnFilter.NULL_CODE;
+    static final short INLINE_CODE = -2;
+    private static final int NULL_DAY = ColumnFilter.NULL_DAY;
+    private static final int MAX_INLINE_LENGTH = 0xFFFF;
+
+    private static final EmployeeField[] FIELDS = EmployeeField.values();
+    /** 문자열 필드의 순번 (문자열 영역에 쓰는 순서) */
+    private static final int[] STRING_FIELDS;
+    /** 필드 순서별 레코드 안 위치 */
+    private static final int[] SLOT_OFFSETS = new int[FIELDS.length];
+    private static final int ROLE_SET_OFFSET;
+    static final int RECORD_BYTES;
+
+    static {
+        int position = Long.BYTES;
+        for (EmployeeField field : FIELDS) {
+            if (field.type() == FieldType.DATE) {
+                SLOT_OFFSETS[field.ordinal()] = position;
+                position += Integer.BYTES;
+            }
+        }
+        List<Integer> stringFields = new ArrayList<>();
+        for (EmployeeField field : FIELDS) {
+            if (field.type() != FieldType.DATE) {
+                SLOT_OFFSETS[field.ordinal()] = position;
+                position += Short.BYTES;
+                stringFields.add(field.ordinal());
+            }
+        }
+        STRING_FIELDS = stringFields.stream().mapToInt(Integer::intValue).toArray();
+        ROLE_SET_OFFSET = position;
+        RECORD_BYTES = position + Short.BYTES;
+    }
+
+    /** 세그먼트 하나에 들어가는 레코드 수 */
+    static final int RECORDS_PER_SEGMENT = SEGMENT_BYTES / RECORD_BYTES;
+
+    private final int size;
+    private final ByteBuffer[] records;
+    private final ByteBuffer[] strings;
+    /** 문자열 영역에 쓴 끝 위치 */
+    private final long stringBytes;
+    /** 필드 순서별 사전. 날짜 필드 자리는 null */
+    private final String[][] dictionaries;
+    private final List<Set<Role>> roleSets;
+
+    /**
+     * 세그먼트는 Builder 가 만든 direct 버퍼이거나 SnapshotFile 이 매핑한 파일 영역이다.
+     * 어느 쪽이든 절대 위치로만 읽으므로 여러 스레드가 같이 읽어도 된다.
+     */
+    OffHeapEmployeeStore(int size, ByteBuffer[] records, ByteBuffer[] strings, long stringBytes,
+                         String[][] dictionaries, List<Set<Role>> roleSets) {
+        this.size = size;
+        this.records = records;
+        this.strings = strings;
+        this.stringBytes = stringBytes;
+        this.dictionaries = dictionaries;
+        this.roleSets = roleSets;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /** 레코드와 문자열 영역이 차지하는 힙 밖 메모리 (바이트) */
+    public long offHeapBytes() {
+        long bytes = 0;
+        for (ByteBuffer segment : records) {
+            bytes += segment.capacity();
+        }
+        for (ByteBuffer segment : strings) {
+            bytes += segment.capacity();
+        }
+        return bytes;
+    }
+
+    ByteBuffer[] recordSegments() {
+        return records;
+    }
+
+    ByteBuffer[] stringSegments() {
+        return strings;
+    }
+
+    long stringBytes() {
+        return stringBytes;
+    }
+
+    String[][] dictionaries() {
+        return dictionaries;
+    }
+
+    /** 역할 조합 코드 순서의 역할 목록 */
+    List<Set<Role>> roleSets() {
+        return roleSets;
+    }
+
+    @Override
+    public Employee get(int ordinal) {
+        Employee e = new Employee();
+        e.setEmployeeId(string(ordinal, EmployeeField.EMPLOYEE_ID));
+        e.setFirstName(string(ordinal, EmployeeField.FIRST_NAME));
+        e.setLastName(string(ordinal, EmployeeField.LAST_NAME));
+        e.setMiddleName(string(ordinal, EmployeeField.MIDDLE_NAME));
+        e.setBirthDate(date(ordinal, EmployeeField.BIRTH_DATE));
+        e.setGender(string(ordinal, EmployeeField.GENDER));
+        e.setNationality(string(ordinal, EmployeeField.NATIONALITY));
+        e.setMaritalStatus(string(ordinal, EmployeeField.MARITAL_STATUS));
+        e.setPosition(string(ordinal, EmployeeField.POSITION));
+        e.setJobTitle(string(ordinal, EmployeeField.JOB_TITLE));
+        e.setDepartment(string(ordinal, EmployeeField.DEPARTMENT));
+        e.setDepartmentName(string(ordinal, EmployeeField.DEPARTMENT_NAME));
+        e.setHireDate(date(ordinal, EmployeeField.HIRE_DATE));
+        e.setTerminationDate(date(ordinal, EmployeeField.TERMINATION_DATE));
+        e.setWorkEmail(string(ordinal, EmployeeField.WORK_EMAIL));
+        e.setWorkPhone(string(ordinal, EmployeeField.WORK_PHONE));
+        e.setMobilePhone(string(ordinal, EmployeeField.MOBILE_PHONE));
+        e.setAddress(string(ordinal, EmployeeField.ADDRESS));
+        e.setBankAccount(string(ordinal, EmployeeField.BANK_ACCOUNT));
+        e.setTaxId(string(ordinal, EmployeeField.TAX_ID));
+        e.setRoles(new LinkedHashSet<>(roles(ordinal)));
+        return e;
+    }
+
+    @Override
+    public Object value(int ordinal, EmployeeField field) {
+        return field.type() == FieldType.DATE ? date(ordinal, field) : string(ordinal, field);
+    }
+
+    @Override
+    public Set<Role> roles(int ordinal) {
+        return roleSets.get(record(ordinal).getShort(base(ordinal) + ROLE_SET_OFFSET) & 0xFFFF);
+    }
+
+    private ByteBuffer record(int ordinal) {
+        return records[ordinal / RECORDS_PER_SEGMENT];
+    }
+
+    private static int base(int ordinal) {
+        return (ordinal % RECORDS_PER_SEGMENT) * RECORD_BYTES;
+    }
+
+    private int day(int ordinal, EmployeeField field) {
+        return record(ordinal).getInt(base(ordinal) + SLOT_OFFSETS[field.ordinal()]);
+    }
+
+    private LocalDate date(int ordinal, EmployeeField field) {
+        int day = day(ordinal, field);
+        return day == NULL_DAY ? null : LocalDate.ofEpochDay(day);
+    }
+
+    private int code(int ordinal, EmployeeField field) {
+        return record(ordinal).getShort(base(ordinal) + SLOT_OFFSETS[field.ordinal()]);
+    }
+
+    private String string(int ordinal, EmployeeField field) {
+        int code = code(ordinal, field);
+        if (code >= 0) {
+            return dictionaries[field.ordinal()][code];
+        }
+        return code == NULL_CODE ? null : inline(ordinal, field);
+    }
+
+    /** 문자열 영역에서 field 앞에 쓰인 값들을 건너뛰고 field 값을 읽는다 */
+    private String inline(int ordinal, EmployeeField field) {
+        ByteBuffer record = record(ordinal);
+        int base = base(ordinal);
+        long offset = record.getLong(base);
+        ByteBuffer area = strings[(int) (offset >>> SEGMENT_SHIFT)];
+        int position = (int) (offset & (SEGMENT_BYTES - 1));
+        for (int stringField : STRING_FIELDS) {
+            if (stringField == field.ordinal()) {
+                break;
+            }
+            if (record.getShort(base + SLOT_OFFSETS[stringField]) == INLINE_CODE) {
+                position += Short.BYTES + (area.getShort(position) & 0xFFFF);
+            }
+        }
+        int length = area.getShort(position) & 0xFFFF;
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = area.get(position + Short.BYTES + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int ordinalOf(String employeeId) {
+        int ordinal = search(employeeId);
+        return ordinal < 0 ? -1 : ordinal;
+    }
+
+    @Override
+    public int ordinalAfter(String employeeId) {
+        int ordinal = search(employeeId);
+        return ordinal >= 0 ? ordinal + 1 : -(ordinal + 1);
+    }
+
+    /** Arrays.binarySearch 와 같은 규칙의 사번 이진 탐색 */
+    private int search(String employeeId) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int compared = string(mid, EmployeeField.EMPLOYEE_ID).compareTo(employeeId);
+            if (compared < 0) {
+                low = mid + 1;
+            } else if (compared > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * 레코드를 직접 읽어 평가하는 조건. 사전 코드는 코드별 결과표로, 날짜는 epoch day 로 비교하고
+     * 사전에 없는 문자열만 문자열 영역에서 꺼내 비교한다.
+     */
+    @Override
+    public IntPredicate filter(FilterExpression expression) {
+        return expression.accept(new ColumnFilter() {
+            @Override
+            protected IntUnaryOperator days(EmployeeField field) {
+                return ordinal -> day(ordinal, field);
+            }
+
+            @Override
+            protected IntPredicate strings(EmployeeField field, FilterExpression.Comparison comparison) {
+                return dictionaryComparison(dictionaries[field.ordinal()], ordinal -> code(ordinal, field),
+                        ordinal -> inline(ordinal, field), comparison);
+            }
+        });
+    }
+
+    /**
+     * 직원 행을 employeeId 오름차순으로 하나씩 받아 세그먼트에 바로 쓴다.
+     * 마지막 세그먼트는 작게 시작해 두 배씩 키우므로 직원 수가 적어도 세그먼트 크기만큼 잡지 않는다.
+     */
+    public static class Builder implements EmployeeStoreBuilder<OffHeapEmployeeStore> {
+
+        private final Segments records = new Segments();
+        private final Segments strings = new Segments();
+        private final List<Map<String, Integer>> codeOf = new ArrayList<>();
+        private final List<List<String>> dictionaries = new ArrayList<>();
+        private final RoleSets roleSets = new RoleSets();
+        private final byte[][] inline = new byte[FIELDS.length][];
+        private long stringOffset;
+        private String lastEmployeeId;
+        private int size;
+
+        public Builder() {
+            for (EmployeeField field : FIELDS) {
+                boolean text = field.type() != FieldType.DATE;
+                codeOf.add(text ? new HashMap<>() : null);
+                dictionaries.add(text ? new ArrayList<>() : null);
+            }
+        }
+
+        @Override
+        public Builder add(Object[] row, List<String> roleIds) {
+            String employeeId = (String) row[EmployeeField.EMPLOYEE_ID.ordinal()];
+            if (lastEmployeeId != null && lastEmployeeId.compareTo(employeeId) >= 0) {
+                throw new IllegalArgumentException("직원은 employeeId 오름차순으로 넣어야 합니다: "
+                        + lastEmployeeId + ", " + employeeId);
+            }
+            if (size == Integer.MAX_VALUE) {
+                throw new IllegalStateException("직원 수가 너무 많습니다");
+            }
+            lastEmployeeId = employeeId;
+
+            int base = base(size);
+            ByteBuffer record = records.reserve(size / RECORDS_PER_SEGMENT, base + RECORD_BYTES);
+            int inlineBytes = 0;
+            for (int field : STRING_FIELDS) {
+                String value = (String) row[field];
+                short code = code(field, value);
+                record.putShort(base + SLOT_OFFSETS[field], code);
+                if (code == INLINE_CODE) {
+                    byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+                    if (encoded.length > MAX_INLINE_LENGTH) {
+                        throw new IllegalArgumentException(FIELDS[field].property() + " 값이 너무 깁니다: "
+                                + encoded.length + " bytes");
+                    }
+                    inline[field] = encoded;
+                    inlineBytes += Short.BYTES + encoded.length;
+                } else {
+                    inline[field] = null;
+                }
+            }
+            for (EmployeeField field : FIELDS) {
+                if (field.type() == FieldType.DATE) {
+                    LocalDate date = (LocalDate) row[field.ordinal()];
+                    record.putInt(base + SLOT_OFFSETS[field.ordinal()], date == null ? NULL_DAY : (int) date.toEpochDay());
+                }
+            }
+            record.putShort(base + ROLE_SET_OFFSET, (short) roleSets.code(roleIds));
+
+            // 한 직원의 문자열은 세그먼트 경계를 넘지 않게 쓴다
+            int position = (int) (stringOffset & (SEGMENT_BYTES - 1));
+            if (position + inlineBytes > SEGMENT_BYTES) {
+                stringOffset += SEGMENT_BYTES - position;
+                position = 0;
+            }
+            record.putLong(base, stringOffset);
+            if (inlineBytes > 0) {
+                ByteBuffer area = strings.reserve((int) (stringOffset >>> SEGMENT_SHIFT), position + inlineBytes);
+                for (int field : STRING_FIELDS) {
+                    byte[] encoded = inline[field];
+                    if (encoded != null) {
+                        area.putShort(position, (short) encoded.length);
+                        for (int i = 0; i < encoded.length; i++) {
+                            area.put(position + Short.BYTES + i, encoded[i]);
+                        }
+                        position += Short.BYTES + encoded.length;
+                    }
+                }
+                stringOffset += inlineBytes;
+            }
+            size++;
+            return this;
+        }
+
+        private short code(int field, String value) {
+            if (value == null) {
+                return NULL_CODE;
+            }
+            Map<String, Integer> codes = codeOf.get(field);
+            Integer code = codes.get(value);
+            if (code == null) {
+                List<String> dictionary = dictionaries.get(field);
+                if (dictionary.size() >= DICTIONARY_LIMIT) {
+                    return INLINE_CODE;
+                }
+                code = dictionary.size();
+                dictionary.add(value);
+                codes.put(value, code);
+            }
+            return code.shortValue();
+        }
+
+        @Override
+        public OffHeapEmployeeStore build(Map<String, Role> roles) {
+            String[][] dictionaryArrays = new String[FIELDS.length][];
+            for (int field : STRING_FIELDS) {
+                dictionaryArrays[field] = dictionaries.get(field).toArray(new String[0]);
+            }
+            return new OffHeapEmployeeStore(size, records.toArray(), strings.toArray(), stringOffset,
+                    dictionaryArrays, roleSets.resolve(roles));
+        }
+    }
+
+    /** 순서대로 채우는 세그먼트 목록. 마지막 세그먼트만 필요할 때 두 배씩 키운다 */
+    private static final class Segments {
+
+        private static final int INITIAL_BYTES = 1 << 20;
+
+        private final List<ByteBuffer> segments = new ArrayList<>();
+
+        /** segment 번째 세그먼트를 적어도 end 바이트까지 쓸 수 있게 해서 돌려준다 */
+        ByteBuffer reserve(int segment, int end) {
+            while (segments.size() <= segment) {
+                segments.add(ByteBuffer.allocateDirect(INITIAL_BYTES));
+            }
+            ByteBuffer buffer = segments.get(segment);
+            if (end > buffer.capacity()) {
+                int capacity = buffer.capacity();
+                while (capacity < end) {
+                    capacity = Math.min(SEGMENT_BYTES, capacity * 2);
+                }
+                ByteBuffer grown = ByteBuffer.allocateDirect(capacity);
+                grown.put(buffer.duplicate().clear());
+                buffer = grown.clear();
+                segments.set(segment, buffer);
+            }
+            return buffer;
+        }
+
+        ByteBuffer[] toArray() {
+            return segments.toArray(new ByteBuffer[0]);
+        }
+    }
+}
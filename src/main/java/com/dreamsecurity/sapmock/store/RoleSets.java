@@ -0,0 +1,57 @@
+package com.dreamsecurity.sapmock.store;
+
+import com.dreamsecurity.sapmock.model.Role;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 적재 중에 직원별 역할 ID 목록을 조합 코드로 바꾼다. 같은 조합은 같은 코드를 받고, 0 은 역할이 없는 조합이다.
+ * 직원은 코드만 저장하고 역할 목록은 조합마다 하나씩 만든다.
+ */
+final class RoleSets {
+
+    private final Map<List<String>, Integer> codeOf = new HashMap<>();
+    private final List<List<String>> roleSets = new ArrayList<>();
+
+    RoleSets() {
+        codeOf.put(Collections.emptyList(), 0);
+        roleSets.add(Collections.emptyList());
+    }
+
+    /** roleIds 조합의 코드 (0 ~ MAX_DICTIONARY_SIZE - 1) */
+    int code(List<String> roleIds) {
+        Integer code = codeOf.get(roleIds);
+        if (code == null) {
+            code = roleSets.size();
+            if (code >= StringColumn.MAX_DICTIONARY_SIZE) {
+                throw new IllegalStateException("역할 조합이 너무 많습니다: " + code);
+            }
+            List<String> key = List.copyOf(roleIds);
+            roleSets.add(key);
+            codeOf.put(key, code);
+        }
+        return code;
+    }
+
+    /** 코드 순서의 역할 목록. roles 에 없는 역할 ID 는 빠진다 */
+    List<Set<Role>> resolve(Map<String, Role> roles) {
+        List<Set<Role>> resolved = new ArrayList<>(roleSets.size());
+        for (List<String> roleIds : roleSets) {
+            Set<Role> set = new LinkedHashSet<>();
+            for (String roleId : roleIds) {
+                Role role = roles.get(roleId);
+                if (role != null) {
+                    set.add(role);
+                }
+            }
+            resolved.add(Collections.unmodifiableSet(set));
+        }
+        return Collections.unmodifiableList(resolved);
+    }
+}
@@ -0,0 +1,301 @@
+package com.dreamsecurity.sapmock.store;
+
+import com.dreamsecurity.sapmock.filter.EmployeeField;
+import com.dreamsecurity.sapmock.filter.FieldType;
+import com.dreamsecurity.sapmock.model.Privilege;
+import com.dreamsecurity.sapmock.model.Role;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 데이터셋 전체(직원, 역할, 권한, 직원-역할 배정)를 담는 바이너리 스냅샷 파일.
+ *
+ * 형식 (big-endian): [MAGIC long][FORMAT_VERSION int][헤더 길이 int][헤더][레코드 세그먼트 ...][문자열 세그먼트 ...]
+ * 헤더에는 레코드 레이아웃(세그먼트 크기, 레코드 크기, 필드 이름), 직원 수, 변경 기록 번호, 권한과 역할,
+ * 역할 조합, 필드별 사전, 세그먼트별 길이가 들어간다.
+ * 세그먼트는 OffHeapEmployeeStore 의 메모리 모양 그대로이므로, 읽을 때는 FileChannel.map 으로 매핑만 하고 복사하지 않는다.
+ * 직원 수와 관계없이 읽는 시간은 헤더 크기에 비례한다.
+ */
+public final class SnapshotFile {
+
+    /** "SAPMOCK" + 0x01 */
+    private static final long MAGIC = 0x5341504D4F434B01L;
+    /** 레이아웃이나 헤더 형식이 바뀌면 올린다. 다른 버전의 파일은 읽지 않는다 */
+    public static final int FORMAT_VERSION = 1;
+
+    private final OffHeapEmployeeStore store;
+    private final List<Role> roles;
+    private final long sequence;
+
+    private SnapshotFile(OffHeapEmployeeStore store, List<Role> roles, long sequence) {
+        this.store = store;
+        this.roles = roles;
+        this.sequence = sequence;
+    }
+
+    /** 직원 저장소. 세그먼트는 파일을 매핑한 읽기 전용 버퍼다 */
+    public OffHeapEmployeeStore store() {
+        return store;
+    }
+
+    /** 역할(권한 목록 포함). 파일에 쓴 순서 그대로다 */
+    public List<Role> roles() {
+        return roles;
+    }
+
+    /** 저장한 데이터셋에 반영된 마지막 변경 기록 번호 (EmployeeChangeLog) */
+    public long sequence() {
+        return sequence;
+    }
+
+    /**
+     * store 와 roles 를 path 에 쓴다. 기존 파일은 덮어쓴다.
+     *
+     * @return 쓴 바이트 수
+     */
+    public static long write(Path path, OffHeapEmployeeStore store, Collection<Role> roles, long sequence)
+            throws IOException {
+        ByteBuffer[] records = store.recordSegments();
+        ByteBuffer[] strings = store.stringSegments();
+        int[] recordLengths = new int[records.length];
+        for (int i = 0; i < records.length; i++) {
+            long remaining = store.size() - (long) i * OffHeapEmployeeStore.RECORDS_PER_SEGMENT;
+            recordLengths[i] = (int) (Math.min(OffHeapEmployeeStore.RECORDS_PER_SEGMENT, remaining)
+                    * OffHeapEmployeeStore.RECORD_BYTES);
+        }
+        int[] stringLengths = new int[strings.length];
+        for (int i = 0; i < strings.length; i++) {
+            long remaining = store.stringBytes() - ((long) i << OffHeapEmployeeStore.SEGMENT_SHIFT);
+            stringLengths[i] = (int) Math.max(0, Math.min(strings[i].capacity(), remaining));
+        }
+
+        byte[] header = header(store, roles, sequence, recordLengths, stringLengths);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer prefix = ByteBuffer.allocate(Long.BYTES + Integer.BYTES * 2);
+            prefix.putLong(MAGIC).putInt(FORMAT_VERSION).putInt(header.length).flip();
+            writeFully(channel, prefix);
+            writeFully(channel, ByteBuffer.wrap(header));
+            for (int i = 0; i < records.length; i++) {
+                writeFully(channel, records[i].duplicate().position(0).limit(recordLengths[i]));
+            }
+            for (int i = 0; i < strings.length; i++) {
+                writeFully(channel, strings[i].duplicate().position(0).limit(stringLengths[i]));
+            }
+            channel.force(false);
+            return channel.position();
+        }
+    }
+
+    private static byte[] header(OffHeapEmployeeStore store, Collection<Role> roles, long sequence,
+                                 int[] recordLengths, int[] stringLengths) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        EmployeeField[] fields = EmployeeField.values();
+        out.writeInt(OffHeapEmployeeStore.SEGMENT_SHIFT);
+        out.writeInt(OffHeapEmployeeStore.RECORD_BYTES);
+        out.writeInt(fields.length);
+        for (EmployeeField field : fields) {
+            out.writeUTF(field.property());
+        }
+        out.writeInt(store.size());
+        out.writeLong(sequence);
+        out.writeLong(store.stringBytes());
+
+        // 권한은 여러 역할이 공유하므로 한 번씩만 쓰고 역할에는 번호만 둔다
+        Map<Privilege, Integer> privilegeIndex = new IdentityHashMap<>();
+        List<Privilege> privileges = new ArrayList<>();
+        for (Role role : roles) {
+            for (Privilege privilege : role.getPrivileges()) {
+                if (!privilegeIndex.containsKey(privilege)) {
+                    privilegeIndex.put(privilege, privileges.size());
+                    privileges.add(privilege);
+                }
+            }
+        }
+        out.writeInt(privileges.size());
+        for (Privilege privilege : privileges) {
+            writeString(out, privilege.getPrivilegeId());
+            writeString(out, privilege.getPrivilegeName());
+            writeString(out, privilege.getDescription());
+        }
+        out.writeInt(roles.size());
+        for (Role role : roles) {
+            writeString(out, role.getRoleId());
+            writeString(out, role.getRoleName());
+            writeString(out, role.getDescription());
+            out.writeInt(role.getPrivileges().size());
+            for (Privilege privilege : role.getPrivileges()) {
+                out.writeInt(privilegeIndex.get(privilege));
+            }
+        }
+
+        List<Set<Role>> roleSets = store.roleSets();
+        out.writeInt(roleSets.size());
+        for (Set<Role> roleSet : roleSets) {
+            out.writeInt(roleSet.size());
+            for (Role role : roleSet) {
+                out.writeUTF(role.getRoleId());
+            }
+        }
+        String[][] dictionaries = store.dictionaries();
+        for (String[] dictionary : dictionaries) {
+            if (dictionary != null) {
+                out.writeInt(dictionary.length);
+                for (String value : dictionary) {
+                    out.writeUTF(value);
+                }
+            }
+        }
+
+        out.writeInt(recordLengths.length);
+        for (int length : recordLengths) {
+            out.writeInt(length);
+        }
+        out.writeInt(stringLengths.length);
+        for (int length : stringLengths) {
+            out.writeInt(length);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * path 를 읽는다. 헤더만 읽고 세그먼트는 매핑하므로 직원 데이터는 조회할 때 페이지 단위로 올라온다.
+     *
+     * @throws IOException 파일이 없거나, 스냅샷 파일이 아니거나, 형식 버전이나 레이아웃이 다를 때
+     */
+    public static SnapshotFile read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer prefix = ByteBuffer.allocate(Long.BYTES + Integer.BYTES * 2);
+            readFully(channel, prefix);
+            prefix.flip();
+            if (prefix.getLong() != MAGIC) {
+                throw new IOException("스냅샷 파일이 아닙니다: " + path);
+            }
+            int formatVersion = prefix.getInt();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException("스냅샷 파일 형식 버전이 다릅니다: " + formatVersion + " (지원: " + FORMAT_VERSION + ")");
+            }
+            ByteBuffer header = ByteBuffer.allocate(prefix.getInt());
+            readFully(channel, header);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(header.array()));
+
+            EmployeeField[] fields = EmployeeField.values();
+            if (in.readInt() != OffHeapEmployeeStore.SEGMENT_SHIFT || in.readInt() != OffHeapEmployeeStore.RECORD_BYTES
+                    || in.readInt() != fields.length) {
+                throw new IOException("스냅샷 파일의 레코드 레이아웃이 다릅니다: " + path);
+            }
+            for (EmployeeField field : fields) {
+                if (!in.readUTF().equals(field.property())) {
+                    throw new IOException("스냅샷 파일의 필드 순서가 다릅니다: " + path);
+                }
+            }
+            int size = in.readInt();
+            long sequence = in.readLong();
+            long stringBytes = in.readLong();
+
+            List<Privilege> privileges = new ArrayList<>();
+            int privilegeCount = in.readInt();
+            for (int i = 0; i < privilegeCount; i++) {
+                privileges.add(new Privilege(readString(in), readString(in), readString(in)));
+            }
+            Map<String, Role> roles = new LinkedHashMap<>();
+            int roleCount = in.readInt();
+            for (int i = 0; i < roleCount; i++) {
+                Role role = new Role(readString(in), readString(in), readString(in), new ArrayList<>());
+                int rolePrivileges = in.readInt();
+                for (int j = 0; j < rolePrivileges; j++) {
+                    role.getPrivileges().add(privileges.get(in.readInt()));
+                }
+                roles.put(role.getRoleId(), role);
+            }
+
+            List<Set<Role>> roleSets = new ArrayList<>();
+            int roleSetCount = in.readInt();
+            for (int code = 0; code < roleSetCount; code++) {
+                Set<Role> roleSet = new LinkedHashSet<>();
+                int count = in.readInt();
+                for (int j = 0; j < count; j++) {
+                    Role role = roles.get(in.readUTF());
+                    if (role != null) {
+                        roleSet.add(role);
+                    }
+                }
+                roleSets.add(Collections.unmodifiableSet(roleSet));
+            }
+            String[][] dictionaries = new String[fields.length][];
+            for (EmployeeField field : fields) {
+                if (field.type() != FieldType.DATE) {
+                    String[] dictionary = new String[in.readInt()];
+                    for (int j = 0; j < dictionary.length; j++) {
+                        dictionary[j] = in.readUTF();
+                    }
+                    dictionaries[field.ordinal()] = dictionary;
+                }
+            }
+
+            long position = prefix.capacity() + header.capacity();
+            ByteBuffer[] records = new ByteBuffer[in.readInt()];
+            for (int i = 0; i < records.length; i++) {
+                int length = in.readInt();
+                records[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                position += length;
+            }
+            ByteBuffer[] strings = new ByteBuffer[in.readInt()];
+            for (int i = 0; i < strings.length; i++) {
+                int length = in.readInt();
+                strings[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                position += length;
+            }
+            if (position != channel.size() || (long) records.length * OffHeapEmployeeStore.RECORDS_PER_SEGMENT < size) {
+                throw new IOException("스냅샷 파일이 잘렸거나 손상되었습니다: " + path);
+            }
+            OffHeapEmployeeStore store = new OffHeapEmployeeStore(size, records, strings, stringBytes, dictionaries,
+                    Collections.unmodifiableList(roleSets));
+            return new SnapshotFile(store, Collections.unmodifiableList(new ArrayList<>(roles.values())), sequence);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("스냅샷 파일이 잘렸습니다");
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.dreamsecurity.sapmock.store;
+
+import java.util.Locale;
+
+/**
+ * 조회 요청을 처리할 저장 엔진 (sap.store.engine).
+ */
+public enum StoreEngine {
+    /** 매 요청을 H2 에 질의 */
+    JPA,
+    /** 기동/생성 후 전체 직원을 메모리에 적재하고 인덱스로 응답 */
+    MEMORY,
+    /** MEMORY 와 같되 직원을 엔티티 대신 사전 인코딩한 컬럼으로 적재 (직원당 힙 사용량이 훨씬 작다) */
+    COLUMNAR,
+    /**
+     * 직원을 힙 밖(direct ByteBuffer) 고정 길이 레코드로 적재. 수천만 명을 작은 힙으로 띄울 때 쓴다.
+     * 인덱스도 힙을 쓰므로 만들지 않고, virtual 처럼 $filter 는 전체를 훑고 $orderby 는 employeeId 만 지원한다
+     */
+    OFFHEAP,
+    /** 직원을 저장하지 않고 (sap.gen.seed, 순번) 으로 요청 시마다 계산 (sap.virtual.count 명) */
+    VIRTUAL;
+
+    public static StoreEngine from(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("알 수 없는 sap.store.engine 값: " + value);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.dreamsecurity.sapmock.store;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 컬럼 저장소(ColumnarEmployeeStore)의 문자열 컬럼 하나. 적재 후에는 변경하지 않는다.
+ *
+ * 값 종류가 적은 컬럼(성별, 국적, 부서, 이름 풀 등)은 사전 인코딩해 직원마다 short 코드 하나만 두고,
+ * 종류가 많은 컬럼(이메일, 전화번호, 주소 등)은 모든 값을 UTF-8 바이트 배열 하나에 이어 붙이고 시작 위치만 int 로 둔다.
+ * 어느 쪽이든 직원마다 String 객체를 만들지 않는다.
+ */
+abstract class StringColumn {
+
+    /** 사전 코드는 unsigned short 이며 마지막 값은 null 을 뜻한다 */
+    static final int MAX_DICTIONARY_SIZE = 0xFFFF;
+    private static final int NULL_CODE = 0xFFFF;
+
+    abstract String get(int index);
+
+    /** 사전 인코딩 컬럼이면 사전 값 (코드 순서), 아니면 null */
+    String[] dictionary() {
+        return null;
+    }
+
+    /** index 행의 사전 코드. 값이 없으면 -1. dictionary() 가 null 이 아닐 때만 쓴다 */
+    int code(int index) {
+        throw new UnsupportedOperationException();
+    }
+
+    private static final class DictionaryColumn extends StringColumn {
+
+        private final short[] codes;
+        private final String[] values;
+
+        DictionaryColumn(short[] codes, String[] values) {
+            this.codes = codes;
+            this.values = values;
+        }
+
+        @Override
+        String get(int index) {
+            int code = codes[index] & 0xFFFF;
+            return code == NULL_CODE ? null : values[code];
+        }
+
+        @Override
+        String[] dictionary() {
+            return values;
+        }
+
+        @Override
+        int code(int index) {
+            int code = codes[index] & 0xFFFF;
+            return code == NULL_CODE ? -1 : code;
+        }
+    }
+
+    private static final class PackedColumn extends StringColumn {
+
+        private final byte[] bytes;
+        /** index 행의 값은 bytes[offsets[index]] 부터 bytes[offsets[index + 1]] 앞까지 */
+        private final int[] offsets;
+        private final BitSet nulls;
+
+        PackedColumn(byte[] bytes, int[] offsets, BitSet nulls) {
+            this.bytes = bytes;
+            this.offsets = offsets;
+            this.nulls = nulls;
+        }
+
+        @Override
+        String get(int index) {
+            if (nulls.get(index)) {
+                return null;
+            }
+            int start = offsets[index];
+            return new String(bytes, start, offsets[index + 1] - start, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * 값을 순서대로 받아 컬럼을 만든다. 사전 인코딩으로 시작하고, 고유 값이 MAX_DICTIONARY_SIZE 를 넘으면
+     * 그때까지 받은 값을 바이트 배열로 옮긴 뒤 이어 붙이는 방식으로 바꾼다.
+     * 다 받은 뒤에도 사번/이메일처럼 값이 거의 겹치지 않아 이어 붙이는 쪽이 더 작으면 그쪽으로 만든다.
+     */
+    static final class Builder {
+
+        private Map<String, Integer> codeOf = new HashMap<>();
+        private List<String> values = new ArrayList<>();
+        private short[] codes = new short[1024];
+
+        private byte[] bytes;
+        private int[] offsets;
+        private BitSet nulls;
+        private int byteCount;
+
+        private int size;
+
+        void add(String value) {
+            if (codeOf != null) {
+                Integer code = value == null ? Integer.valueOf(NULL_CODE) : codeOf.get(value);
+                if (code == null && values.size() < MAX_DICTIONARY_SIZE) {
+                    code = values.size();
+                    values.add(value);
+                    codeOf.put(value, code);
+                }
+                if (code != null) {
+                    if (size == codes.length) {
+                        codes = Arrays.copyOf(codes, size * 2);
+                    }
+                    codes[size++] = (short) code.intValue();
+                    return;
+                }
+                switchToPacked();
+            }
+            append(value);
+        }
+
+        private void switchToPacked() {
+            bytes = new byte[Math.max(1024, size * 16)];
+            offsets = new int[Math.max(1024, size * 2)];
+            nulls = new BitSet();
+            int count = size;
+            size = 0;
+            for (int i = 0; i < count; i++) {
+                int code = codes[i] & 0xFFFF;
+                append(code == NULL_CODE ? null : values.get(code));
+            }
+            codeOf = null;
+            values = null;
+            codes = null;
+        }
+
+        private void append(String value) {
+            if (size + 1 >= offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            if (value == null) {
+                nulls.set(size);
+            } else {
+                byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+                if ((long) byteCount + encoded.length > Integer.MAX_VALUE - 8) {
+                    throw new IllegalStateException("문자열 컬럼이 2GB 를 넘습니다");
+                }
+                if (byteCount + encoded.length > bytes.length) {
+                    bytes = Arrays.copyOf(bytes, (int) Math.min(Integer.MAX_VALUE - 8,
+                            Math.max((long) bytes.length * 2, (long) byteCount + encoded.length)));
+                }
+                System.arraycopy(encoded, 0, bytes, byteCount, encoded.length);
+                byteCount += encoded.length;
+            }
+            offsets[++size] = byteCount;
+        }
+
+        /**
+         * 대략적인 크기 비교. 사전 값 하나는 String 객체와 내부 byte[] 헤더, 배열 참조까지 약 48바이트에 길이만큼,
+         * 이어 붙이면 행마다 길이에 시작 위치 4바이트가 든다.
+         */
+        private boolean packedIsSmaller() {
+            long length = 0;
+            for (String value : values) {
+                length += value.length();
+            }
+            long dictionaryBytes = 2L * size + 48L * values.size() + length;
+            long packedBytes = 4L * size + (values.isEmpty() ? 0 : length * size / values.size());
+            return packedBytes < dictionaryBytes;
+        }
+
+        StringColumn build() {
+            if (codeOf != null && packedIsSmaller()) {
+                switchToPacked();
+            }
+            if (codeOf != null) {
+                return new DictionaryColumn(Arrays.copyOf(codes, size), values.toArray(new String[0]));
+            }
+            return new PackedColumn(Arrays.copyOf(bytes, byteCount), Arrays.copyOf(offsets, size + 1), nulls);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.dreamsecurity.sapmock.store;
+
+import com.dreamsecurity.sapmock.model.Employee;
+import com.dreamsecurity.sapmock.service.SeededEmployeeFactory;
+
+/**
+ * 직원을 저장하지 않고, 요청된 순번의 직원을 (시드, 순번) 으로 그때그때 계산하는 저장소.
+ * 인원 수와 관계없이 메모리 사용량이 일정하고, 같은 시드를 쓰는 서버끼리는 DB 공유 없이 같은 데이터를 응답한다.
+ * 순번은 다른 저장소와 같이 사번의 문자열 순서이다. 사번은 FIRST_EMPLOYEE_NUMBER 부터 이어지는 10진수이므로
+ * 6자리가 되면 숫자 순서와 달라지는데("100000" < "10001"), 사번 ↔ 순번은 자릿수별로 범위 안의 사번 수를 세어 계산한다.
+ */
+public class VirtualEmployeeStore implements EmployeeStore {
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final SeededEmployeeFactory factory;
+    private final int size;
+    /** 사번 숫자의 범위 [first, last] */
+    private final long first;
+    private final long last;
+
+    public VirtualEmployeeStore(SeededEmployeeFactory factory, int size) {
+        this.factory = factory;
+        this.size = size;
+        this.first = SeededEmployeeFactory.FIRST_EMPLOYEE_NUMBER;
+        this.last = first + size - 1;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Employee get(int ordinal) {
+        if (ordinal < 0 || ordinal >= size) {
+            throw new IndexOutOfBoundsException("순번 " + ordinal + " (직원 " + size + "명)");
+        }
+        return factory.create(numberAt(ordinal) - first);
+    }
+
+    @Override
+    public int ordinalOf(String employeeId) {
+        long index = SeededEmployeeFactory.ordinalOf(employeeId);
+        return index >= 0 && index < size ? (int) countBefore(employeeId, false) : -1;
+    }
+
+    @Override
+    public int ordinalAfter(String employeeId) {
+        return (int) countBefore(employeeId, true);
+    }
+
+    /** 문자열 순서로 employeeId 보다 앞(inclusive 이면 같은 것 포함)에 오는 사번 수 */
+    private long countBefore(String employeeId, boolean inclusive) {
+        long count = 0;
+        for (int digits = digits(first); digits <= digits(last); digits++) {
+            // 자릿수가 같은 사번끼리는 문자열 순서와 숫자 순서가 같다
+            long from = Math.max(first, POWERS_OF_TEN[digits - 1]);
+            long to = Math.min(last, POWERS_OF_TEN[digits] - 1);
+            long bound = bound(employeeId, digits, inclusive);
+            count += Math.max(0, Math.min(to + 1, bound) - from);
+        }
+        return count;
+    }
+
+    /**
+     * digits 자리 사번 x 중 문자열 비교로 employeeId 보다 앞(inclusive 이면 같은 것 포함)에 오는 것은 x < bound 인 것이다.
+     */
+    private static long bound(String employeeId, int digits, boolean inclusive) {
+        int length = employeeId.length();
+        long prefix = 0;
+        for (int i = 0; i < Math.min(length, digits); i++) {
+            char c = employeeId.charAt(i);
+            if (c < '0' || c > '9') {
+                // 앞 i 자리가 같으면 이 자리에서 갈린다. 숫자보다 뒤의 문자면 같은 앞자리의 사번이 모두 앞에 온다
+                return (c > '9' ? prefix + 1 : prefix) * POWERS_OF_TEN[digits - i];
+            }
+            prefix = prefix * 10 + (c - '0');
+        }
+        if (length > digits) {
+            // 앞자리가 employeeId 의 앞부분과 같은 사번은 더 짧으므로 앞에 온다
+            return prefix + 1;
+        }
+        if (length == digits) {
+            return inclusive ? prefix + 1 : prefix;
+        }
+        // 앞자리가 employeeId 와 같은 사번은 더 길므로 뒤에 온다
+        return prefix * POWERS_OF_TEN[digits - length];
+    }
+
+    /** 문자열 순서로 rank 번째 사번의 숫자. 자릿수 트리를 앞에서부터 내려가며 하위 사번 수만큼 건너뛴다 */
+    private long numberAt(long rank) {
+        long prefix = 0;
+        int depth = 0;
+        while (true) {
+            if (depth > 0 && prefix >= first && prefix <= last) {
+                if (rank == 0) {
+                    return prefix;
+                }
+                rank--;
+            }
+            boolean descended = false;
+            for (int d = depth == 0 ? 1 : 0; d <= 9; d++) {
+                long child = prefix * 10 + d;
+                long count = countWithPrefix(child, depth + 1);
+                if (rank < count) {
+                    prefix = child;
+                    depth++;
+                    descended = true;
+                    break;
+                }
+                rank -= count;
+            }
+            if (!descended) {
+                throw new IllegalStateException("순번을 사번으로 바꿀 수 없습니다: " + rank);
+            }
+        }
+    }
+
+    /** 앞 prefixDigits 자리가 prefix 인 사번 수 */
+    private long countWithPrefix(long prefix, int prefixDigits) {
+        long count = 0;
+        for (int digits = Math.max(prefixDigits, digits(first)); digits <= digits(last); digits++) {
+            long scale = POWERS_OF_TEN[digits - prefixDigits];
+            long from = Math.max(first, prefix * scale);
+            long to = Math.min(last, (prefix + 1) * scale - 1);
+            count += Math.max(0, to - from + 1);
+        }
+        return count;
+    }
+
+    private static int digits(long number) {
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && number >= POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        return digits;
+    }
+}
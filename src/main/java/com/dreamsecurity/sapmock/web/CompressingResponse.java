@@ -0,0 +1,257 @@
+package com.dreamsecurity.sapmock.web;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/**
+ * 본문을 minSize 바이트까지 모아 두었다가, 그 이상이면 압축해서 내보내는 응답 래퍼.
+ * 끝까지 minSize 에 못 미치거나 압축 대상이 아닌 응답(200 이 아님, 이미 Content-Encoding 이 있음, gzip 파일)은 그대로 쓴다.
+ * 압축 여부가 정해지기 전의 flush 는 미루고, 정해진 뒤에는 flush 마다 압축된 내용을 바로 내보내므로 스트리밍 응답도 끊기지 않는다.
+ */
+class CompressingResponse extends HttpServletResponseWrapper {
+
+    private final ContentCoding coding;
+    private final int minSize;
+
+    private BufferingOutputStream stream;
+    private PrintWriter writer;
+    private long contentLength = -1;
+
+    CompressingResponse(HttpServletResponse response, ContentCoding coding, int minSize) {
+        super(response);
+        this.coding = coding;
+        this.minSize = minSize;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() 가 이미 호출되었습니다");
+        }
+        return stream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (stream != null) {
+                throw new IllegalStateException("getOutputStream() 이 이미 호출되었습니다");
+            }
+            writer = new PrintWriter(new OutputStreamWriter(stream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    private BufferingOutputStream stream() {
+        if (stream == null) {
+            stream = new BufferingOutputStream();
+        }
+        return stream;
+    }
+
+    // 압축하면 길이가 달라지므로, Content-Length 는 압축하지 않기로 정해졌을 때만 내보낸다
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (stream != null && stream.decided) {
+            if (!stream.compressing) {
+                super.setContentLengthLong(len);
+            }
+        } else {
+            contentLength = len;
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value);
+        } else {
+            super.setIntHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value);
+        } else {
+            super.addIntHeader(name, value);
+        }
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (stream != null) {
+            stream.flush();
+            if (!stream.decided) {
+                return;
+            }
+        }
+        super.flushBuffer();
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (stream != null && !stream.decided) {
+            stream.buffer.reset();
+        }
+        super.resetBuffer();
+    }
+
+    @Override
+    public void reset() {
+        if (stream != null && !stream.decided) {
+            stream.buffer.reset();
+        }
+        contentLength = -1;
+        super.reset();
+    }
+
+    /** 모아 둔 본문을 내보내고 압축 스트림을 마무리한다. 요청 처리(비동기면 비동기 디스패치)가 끝난 뒤 한 번 호출한다 */
+    void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (stream != null) {
+            stream.finish();
+        }
+    }
+
+    private boolean isCompressible() {
+        if (getStatus() != HttpServletResponse.SC_OK || isCommitted() || getHeader(HttpHeaders.CONTENT_ENCODING) != null) {
+            return false;
+        }
+        String contentType = getContentType();
+        if (contentType == null) {
+            return true;
+        }
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        return !mediaType.getSubtype().equals("gzip") && !mediaType.getSubtype().equals("zip");
+    }
+
+    private final class BufferingOutputStream extends ServletOutputStream {
+
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.min(minSize, 8192));
+        private OutputStream target;
+        private boolean decided;
+        private boolean compressing;
+        private boolean finished;
+
+        @Override
+        public void write(int b) throws IOException {
+            if (!decided) {
+                buffer.write(b);
+                if (buffer.size() >= minSize) {
+                    decide(true);
+                }
+            } else {
+                target.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (!decided) {
+                buffer.write(b, off, len);
+                if (buffer.size() >= minSize) {
+                    decide(true);
+                }
+            } else {
+                target.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (decided) {
+                target.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+        }
+
+        void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            if (!decided) {
+                decide(false);
+            }
+            if (compressing) {
+                // 압축 스트림을 닫아야 남은 블록과 trailer 가 쓰이고 Deflater 가 해제된다
+                target.close();
+            } else {
+                target.flush();
+            }
+        }
+
+        private void decide(boolean large) throws IOException {
+            decided = true;
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            OutputStream raw = response.getOutputStream();
+            if (large && isCompressible()) {
+                compressing = true;
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, coding.token());
+                target = coding.wrap(raw);
+            } else {
+                if (contentLength >= 0) {
+                    response.setContentLengthLong(contentLength);
+                }
+                target = raw;
+            }
+            buffer.writeTo(target);
+            buffer = null;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            throw new UnsupportedOperationException("비동기 쓰기는 지원하지 않습니다");
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.dreamsecurity.sapmock.web;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 응답 압축 방식. Accept-Encoding 으로 협상하며 gzip 을 deflate 보다 우선한다.
+ */
+public enum ContentCoding {
+
+    GZIP("gzip"),
+    DEFLATE("deflate");
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final String token;
+
+    ContentCoding(String token) {
+        this.token = token;
+    }
+
+    public String token() {
+        return token;
+    }
+
+    /**
+     * Accept-Encoding 헤더에서 쓸 방식을 고른다. q=0 으로 거절한 방식은 고르지 않으며, 받을 수 있는 방식이 없으면 null.
+     */
+    public static ContentCoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return null;
+        }
+        boolean gzip = false;
+        boolean deflate = false;
+        boolean wildcard = false;
+        boolean gzipRefused = false;
+        boolean deflateRefused = false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.split(";");
+            String name = tokens[0].trim().toLowerCase(Locale.ROOT);
+            boolean refused = false;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim();
+                if (param.startsWith("q=")) {
+                    refused = isZero(param.substring(2));
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip |= !refused;
+                gzipRefused |= refused;
+            } else if (name.equals("deflate")) {
+                deflate |= !refused;
+                deflateRefused |= refused;
+            } else if (name.equals("*")) {
+                wildcard = !refused;
+            }
+        }
+        if (gzip || (wildcard && !gzipRefused)) {
+            return GZIP;
+        }
+        if (deflate || (wildcard && !deflateRefused)) {
+            return DEFLATE;
+        }
+        return null;
+    }
+
+    private static boolean isZero(String quality) {
+        try {
+            return Double.parseDouble(quality.trim()) <= 0;
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+    }
+
+    /** 이 방식으로 압축해 out 에 쓰는 스트림. flush 하면 그때까지 쓴 내용을 바로 내보낸다 (SYNC_FLUSH) */
+    DeflaterOutputStream wrap(OutputStream out) throws IOException {
+        if (this == GZIP) {
+            return new GZIPOutputStream(out, BUFFER_SIZE, true);
+        }
+        return new DeflaterOutputStream(out, new Deflater(Deflater.DEFAULT_COMPRESSION), BUFFER_SIZE, true);
+    }
+}
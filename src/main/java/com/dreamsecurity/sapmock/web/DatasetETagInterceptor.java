@@ -0,0 +1,53 @@
+package com.dreamsecurity.sapmock.web;
+
+import com.dreamsecurity.sapmock.service.DatasetSnapshot;
+import com.dreamsecurity.sapmock.service.EmployeeDatasetService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 직원 데이터 조회 응답에 데이터 버전으로 만든 강한 ETag 를 붙인다.
+ * 같은 버전이면 같은 URL 의 응답 내용도 같으므로, If-None-Match 가 맞으면 컨트롤러(저장소 조회)를 거치지 않고 304 로 끝낸다.
+ * 압축한 본문과 원문은 바이트가 다르므로 협상한 압축 방식을 ETag 에 붙인다 ("버전-gzip").
+ * ETag 를 만든 스냅샷을 요청 속성에 잡아 두어, 컨트롤러가 그 사이 재적재된 새 스냅샷이 아니라 같은 버전으로 응답하게 한다.
+ */
+public class DatasetETagInterceptor implements HandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(DatasetETagInterceptor.class);
+
+    /** 이 요청이 응답에 쓸 DatasetSnapshot */
+    public static final String SNAPSHOT_ATTRIBUTE = DatasetETagInterceptor.class.getName() + ".snapshot";
+
+    private final EmployeeDatasetService datasetService;
+
+    public DatasetETagInterceptor(EmployeeDatasetService datasetService) {
+        this.datasetService = datasetService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST
+                || !("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()))) {
+            return true;
+        }
+        DatasetSnapshot snapshot = datasetService.snapshot();
+        request.setAttribute(SNAPSHOT_ATTRIBUTE, snapshot);
+        ContentCoding coding = (ContentCoding) request.getAttribute(ResponseCompressionFilter.CODING_ATTRIBUTE);
+        String etag = "\"" + datasetService.tag(snapshot) + (coding != null ? "-" + coding.token() : "") + "\"";
+
+        // 매번 재검증하도록 (보안 기본값 no-store 대신) no-cache
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            log.debug("▶[ETag] 변경 없음 (304): {} {}", request.getRequestURI(), etag);
+            return false;
+        }
+        return true;
+    }
+}
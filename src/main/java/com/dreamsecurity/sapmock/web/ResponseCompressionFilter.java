@@ -0,0 +1,68 @@
+package com.dreamsecurity.sapmock.web;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Accept-Encoding 에 gzip/deflate 가 있으면 min-size 이상인 응답 본문을 압축한다.
+ * 톰캣 내장 압축(server.compression)은 강한 ETag 가 붙은 응답을 압축하지 않으므로 직접 처리한다.
+ * 협상한 방식은 요청 속성(CODING_ATTRIBUTE)에 남겨, ETag 를 압축 방식별로 구분하는 데 쓴다.
+ * 스트리밍 응답은 비동기 디스패치가 끝난 뒤에 압축 스트림을 마무리한다.
+ */
+@Component
+public class ResponseCompressionFilter extends OncePerRequestFilter {
+
+    public static final String CODING_ATTRIBUTE = ResponseCompressionFilter.class.getName() + ".coding";
+    private static final String RESPONSE_ATTRIBUTE = ResponseCompressionFilter.class.getName() + ".response";
+
+    @Value("${sap.compression.enabled:true}")
+    private boolean enabled;
+
+    @Value("${sap.compression.min-size:2048}")
+    private int minSize;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        CompressingResponse compressing = (CompressingResponse) request.getAttribute(RESPONSE_ATTRIBUTE);
+        if (isAsyncDispatch(request)) {
+            // 처음 디스패치에서 만든 래퍼가 스트리밍 본문을 받고 있다
+            chain.doFilter(request, response);
+            if (compressing == null) {
+                return;
+            }
+        } else {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            ContentCoding coding = ContentCoding.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+            if (coding == null) {
+                chain.doFilter(request, response);
+                return;
+            }
+            compressing = new CompressingResponse(response, coding, minSize);
+            request.setAttribute(CODING_ATTRIBUTE, coding);
+            request.setAttribute(RESPONSE_ATTRIBUTE, compressing);
+            chain.doFilter(request, compressing);
+        }
+        if (!request.isAsyncStarted()) {
+            compressing.finish();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.dreamsecurity.sapmock;
+
+import com.dreamsecurity.sapmock.filter.CompiledFilter;
+import com.dreamsecurity.sapmock.filter.EmployeeField;
+import com.dreamsecurity.sapmock.model.Employee;
+import com.dreamsecurity.sapmock.model.Role;
+import com.dreamsecurity.sapmock.service.EmployeeValuePools;
+import com.dreamsecurity.sapmock.service.SeededEmployeeFactory;
+import com.dreamsecurity.sapmock.sort.EmployeeOrder;
+import com.dreamsecurity.sapmock.store.ColumnarEmployeeStore;
+import com.dreamsecurity.sapmock.store.EmployeeDataset;
+import com.dreamsecurity.sapmock.store.EmployeeStore;
+import com.dreamsecurity.sapmock.store.HeapEmployeeStore;
+import com.dreamsecurity.sapmock.store.OffHeapEmployeeStore;
+import com.dreamsecurity.sapmock.store.VirtualEmployeeStore;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * columnar/offheap 저장소가 같은 직원으로 만든 힙 저장소와 값, 역할, 사번 조회, $filter 결과가 같은지 확인한다.
+ * 사전 크기(4096)를 넘는 고유값 필드, null, 한글, 긴 문자열을 섞어 사전 코드와 인라인 문자열 경로를 모두 지난다.
+ * virtual 저장소는 같은 시드로 만든 직원을 담은 힙 저장소와 순번 순서가 같은지 확인한다.
+ */
+class EmployeeStoreParityTest {
+
+    private static final int SIZE = 6000;
+    private static final String[] FIRST_NAMES = {"민수", "Alice", "BOB", "지은", "Ørjan"};
+
+    private static HeapEmployeeStore heap;
+    private static ColumnarEmployeeStore columnar;
+    private static OffHeapEmployeeStore offHeap;
+
+    @BeforeAll
+    static void setUp() {
+        Map<String, Role> roles = new LinkedHashMap<>();
+        for (String id : new String[] {"ADMIN", "HR", "USER"}) {
+            roles.put(id, new Role(id, id + " 역할", null, new ArrayList<>()));
+        }
+        List<Role> roleList = new ArrayList<>(roles.values());
+
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < SIZE; i++) {
+            Employee e = new Employee();
+            e.setEmployeeId(String.valueOf(10000 + i));
+            e.setFirstName(FIRST_NAMES[i % FIRST_NAMES.length]);
+            e.setMiddleName(i % 3 == 0 ? null : "Lee");
+            e.setGender(i % 2 == 0 ? "F" : "M");
+            e.setDepartment(String.valueOf(1001 + i % 7));
+            e.setBirthDate(LocalDate.of(1960, 1, 1).plusDays(i * 7L));
+            e.setHireDate(LocalDate.of(2000, 1, 1).plusDays(i));
+            e.setTerminationDate(i % 10 == 0 ? LocalDate.of(2020, 1, 1).plusDays(i % 365) : null);
+            e.setWorkEmail(String.format("e%05d@example.com", i));
+            e.setAddress(i == 42 ? String.join("", Collections.nCopies(300, "주소")) : "서울 " + (i % 50) + "길");
+            e.setRoles(new HashSet<>(roleList.subList(0, i % (roleList.size() + 1))));
+            employees.add(e);
+        }
+        // 사번 순서로 넣지 않아도 저장소는 사번 순으로 순번을 매긴다
+        Collections.reverse(employees);
+
+        heap = new HeapEmployeeStore(employees);
+        columnar = new ColumnarEmployeeStore.Builder().addAll(heap).build(roles);
+        offHeap = new OffHeapEmployeeStore.Builder().addAll(heap).build(roles);
+    }
+
+    @Test
+    void valuesAndRolesMatchHeapStore() {
+        for (EmployeeStore store : new EmployeeStore[] {columnar, offHeap}) {
+            assertEquals(SIZE, store.size());
+            for (int ordinal = 0; ordinal < SIZE; ordinal++) {
+                for (EmployeeField field : EmployeeField.values()) {
+                    assertEquals(heap.value(ordinal, field), store.value(ordinal, field),
+                            store.getClass().getSimpleName() + " " + field + " @" + ordinal);
+                }
+                assertEquals(roleIds(heap.roles(ordinal)), roleIds(store.roles(ordinal)));
+                assertEquals(heap.get(ordinal).getWorkEmail(), store.get(ordinal).getWorkEmail());
+            }
+        }
+    }
+
+    @Test
+    void employeeIdLookupsMatchHeapStore() {
+        for (EmployeeStore store : new EmployeeStore[] {columnar, offHeap}) {
+            for (String id : new String[] {"10000", "10001", "12345", "15999", "09999", "16000", "1234", "99999", "x"}) {
+                assertEquals(heap.ordinalOf(id), store.ordinalOf(id), "ordinalOf " + id);
+                assertEquals(heap.ordinalAfter(id), store.ordinalAfter(id), "ordinalAfter " + id);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "workEmail eq 'e04321@example.com'",
+            "firstName eq '민수' and not (middleName eq 'Lee')",
+            "department ge 1004 and gender eq 'M'",
+            "terminationDate ne null or hireDate lt 2000-03-01",
+            "address eq '서울 7길'"
+    })
+    void filtersMatchHeapStore(String filter) {
+        CompiledFilter compiled = CompiledFilter.compile(filter);
+        Set<String> expected = ids(new EmployeeDataset(heap), compiled);
+        assertEquals(expected, ids(EmployeeDataset.unindexed(columnar), compiled), "columnar: " + filter);
+        assertEquals(expected, ids(EmployeeDataset.unindexed(offHeap), compiled), "offheap: " + filter);
+    }
+
+    @Test
+    void virtualStoreOrdersLikeHeapStore() {
+        // 사번이 6자리로 넘어가는 구간("99999" → "100000")을 지나도록 만든다
+        int size = 100_500;
+        List<Role> roles = Collections.singletonList(new Role("USER", "사용자", null, new ArrayList<>()));
+        SeededEmployeeFactory factory = new SeededEmployeeFactory(7L, EmployeeValuePools.create(7L, 64), roles,
+                LocalDate.of(2026, 1, 1));
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            employees.add(factory.create(i));
+        }
+        HeapEmployeeStore expected = new HeapEmployeeStore(employees);
+        VirtualEmployeeStore virtual = new VirtualEmployeeStore(factory, size);
+
+        assertEquals(size, virtual.size());
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            Employee employee = virtual.get(ordinal);
+            assertEquals(expected.get(ordinal).getEmployeeId(), employee.getEmployeeId(), "@" + ordinal);
+            assertEquals(ordinal, virtual.ordinalOf(employee.getEmployeeId()));
+        }
+        assertEquals(expected.get(size - 1).getFirstName(), virtual.get(size - 1).getFirstName());
+        for (String id : new String[] {"", "0", "09999", "1", "10000", "100000", "1000000", "100005", "10001",
+                "10009x", "1001", "110499", "110500", "11050", "2", "99999", "999999", "x", "10000~"}) {
+            assertEquals(expected.ordinalOf(id), virtual.ordinalOf(id), "ordinalOf " + id);
+            assertEquals(expected.ordinalAfter(id), virtual.ordinalAfter(id), "ordinalAfter " + id);
+        }
+    }
+
+    private static Set<String> ids(EmployeeDataset dataset, CompiledFilter filter) {
+        Set<String> ids = new TreeSet<>();
+        dataset.forEachRowInPage(filter, EmployeeOrder.NATURAL, null, 0,
+                Integer.MAX_VALUE, Collections.singletonList(EmployeeField.EMPLOYEE_ID), row -> ids.add((String) row[0]));
+        assertEquals(ids.size(), dataset.count(filter));
+        return ids;
+    }
+
+    private static Set<String> roleIds(Set<Role> roles) {
+        Set<String> ids = new TreeSet<>();
+        for (Role role : roles) {
+            ids.add(role.getRoleId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,64 @@
+package com.dreamsecurity.sapmock;
+
+import com.dreamsecurity.sapmock.model.Privilege;
+import com.dreamsecurity.sapmock.model.Role;
+import com.dreamsecurity.sapmock.odata.ExpandOption;
+import com.dreamsecurity.sapmock.odata.InvalidQueryOptionException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * $expand 해석과 직원 roles 속성 값 (펼침 / __deferred).
+ */
+class ExpandOptionTest {
+
+    @Test
+    void parsesSupportedPaths() {
+        assertEquals(ExpandOption.NONE, ExpandOption.parse(null));
+        assertEquals(ExpandOption.NONE, ExpandOption.parse(" "));
+        assertEquals(ExpandOption.ROLES, ExpandOption.parse("Roles"));
+        assertEquals(ExpandOption.ROLES, ExpandOption.parse("roles"));
+        assertEquals(ExpandOption.ROLES_PRIVILEGES, ExpandOption.parse("Roles/Privileges"));
+        // 더 깊은 경로가 있으면 그쪽을 따른다
+        assertEquals(ExpandOption.ROLES_PRIVILEGES, ExpandOption.parse("Roles/Privileges, Roles"));
+        assertEquals(ExpandOption.ROLES_PRIVILEGES, ExpandOption.parse("Roles,Roles/Privileges"));
+        assertFalse(ExpandOption.NONE.isExpanded());
+        assertTrue(ExpandOption.ROLES.isExpanded());
+    }
+
+    @Test
+    void rejectsUnsupportedPaths() {
+        assertThrows(InvalidQueryOptionException.class, () -> ExpandOption.parse("Manager"));
+        assertThrows(InvalidQueryOptionException.class, () -> ExpandOption.parse("Roles/Users"));
+    }
+
+    @Test
+    void rolesValueDefersOrExpands() {
+        List<Privilege> privileges = new ArrayList<>();
+        privileges.add(new Privilege("S_TCODE", "TCD=SU01", "사용자 조회"));
+        List<Role> roles = Collections.singletonList(new Role("USER", "사용자", "기본 역할", privileges));
+        String uri = "http://localhost/Employees('10001')/Roles";
+
+        Map<?, ?> deferred = (Map<?, ?>) ExpandOption.NONE.rolesValue(uri, roles);
+        assertEquals(uri, ((Map<?, ?>) deferred.get("__deferred")).get("uri"));
+
+        List<?> expanded = (List<?>) ExpandOption.ROLES.rolesValue(uri, roles);
+        Map<?, ?> role = (Map<?, ?>) expanded.get(0);
+        assertEquals("USER", role.get("roleId"));
+        assertEquals("사용자", role.get("roleName"));
+        assertEquals("기본 역할", role.get("description"));
+        assertFalse(role.containsKey("privileges"));
+
+        assertSame(roles, ExpandOption.ROLES_PRIVILEGES.rolesValue(uri, roles));
+    }
+}
@@ -0,0 +1,120 @@
+package com.dreamsecurity.sapmock;
+
+import com.dreamsecurity.sapmock.filter.CompiledFilter;
+import com.dreamsecurity.sapmock.filter.EmployeeField;
+import com.dreamsecurity.sapmock.model.Employee;
+import com.dreamsecurity.sapmock.repository.EmployeeRepository;
+import com.dreamsecurity.sapmock.service.EmployeeSpecifications;
+import com.dreamsecurity.sapmock.sort.EmployeeOrder;
+import com.dreamsecurity.sapmock.store.ColumnarEmployeeStore;
+import com.dreamsecurity.sapmock.store.EmployeeDataset;
+import com.dreamsecurity.sapmock.store.HeapEmployeeStore;
+import com.dreamsecurity.sapmock.store.OffHeapEmployeeStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 같은 $filter 가 jpa 엔진(Specification → SQL)과 메모리 엔진(구문 트리 평가, 인덱스, columnar/offheap 컬럼 평가)에서
+ * 같은 직원을 고르는지 확인한다. null 이 섞인 컬럼에 not 을 씌운 경우가 특히 어긋나기 쉽다.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+class FilterParityTest {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private List<Employee> employees;
+
+    @BeforeEach
+    void setUp() {
+        employees = new ArrayList<>();
+        employees.add(employee("10001", "Alice", null, "F", "1001", LocalDate.of(2019, 3, 1), null));
+        employees.add(employee("10002", "BOB", "Lee", "M", "1002", LocalDate.of(2020, 1, 1), LocalDate.of(2020, 1, 1)));
+        employees.add(employee("10003", "carol", "lee", "F", "1003", LocalDate.of(2021, 7, 15), LocalDate.of(2022, 5, 31)));
+        employees.add(employee("10004", "Dave", null, "M", null, null, null));
+        employees.add(employee("10005", "Erin", "Kim", "F", "1010", LocalDate.of(2018, 11, 20), LocalDate.of(2019, 12, 31)));
+        employees.add(employee("10006", "Frank", null, "M", "N/A", LocalDate.of(2022, 2, 1), null));
+        employees.add(employee("10007", "Grace", "Park", "F", "007", LocalDate.of(2017, 4, 3), null));
+        employeeRepository.saveAll(employees);
+        employeeRepository.flush();
+    }
+
+    private static Employee employee(String id, String firstName, String middleName, String gender,
+                                     String department, LocalDate hireDate, LocalDate terminationDate) {
+        Employee e = new Employee();
+        e.setEmployeeId(id);
+        e.setFirstName(firstName);
+        e.setMiddleName(middleName);
+        e.setGender(gender);
+        e.setDepartment(department);
+        e.setHireDate(hireDate);
+        e.setTerminationDate(terminationDate);
+        return e;
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "not (terminationDate eq 2020-01-01)",
+            "not (terminationDate gt 2020-01-01)",
+            "not (terminationDate le 2020-01-01)",
+            "not (middleName eq 'lee')",
+            "not (middleName ne 'lee')",
+            "not (department ge 1003)",
+            "not not (terminationDate lt 2021-01-01)",
+            "terminationDate eq null",
+            "not (terminationDate eq null)",
+            "middleName ne 'LEE'",
+            "firstName eq 'alice' or firstName eq 'bob'",
+            "gender eq 'F' and not (hireDate lt 2020-01-01 or terminationDate eq null)",
+            "not (gender eq 'M' and department lt 1005)",
+            "firstName eq 'ALICE' or gender eq 'M' and department eq '1002'",
+            "(firstName eq 'ALICE' or gender eq 'M') and department eq '1002'",
+            "hireDate ge datetime'2020-01-01T00:00:00'",
+            "department lt 1005 and department ne '1001'",
+            "firstName eq 'CAROL' and middleName eq 'LEE'",
+            "department gt 5",
+            "not (department le 1002)",
+            "department ne 'N/A' and department lt 1003"
+    })
+    void jpaAndMemoryEnginesSelectSameEmployees(String filter) {
+        CompiledFilter compiled = CompiledFilter.compile(filter);
+        List<String> expected = employees.stream()
+                .filter(compiled)
+                .map(Employee::getEmployeeId)
+                .sorted()
+                .collect(Collectors.toList());
+
+        List<String> jpa = employeeRepository.findAll(EmployeeSpecifications.fromFilter(compiled)).stream()
+                .map(Employee::getEmployeeId)
+                .sorted()
+                .collect(Collectors.toList());
+        assertEquals(expected, jpa, "jpa: " + filter);
+
+        HeapEmployeeStore heap = new HeapEmployeeStore(employees);
+        assertEquals(expected, ids(new EmployeeDataset(heap), compiled), "memory: " + filter);
+        assertEquals(expected, ids(EmployeeDataset.unindexed(new ColumnarEmployeeStore.Builder()
+                .addAll(heap).build(Collections.emptyMap())), compiled), "columnar: " + filter);
+        assertEquals(expected, ids(EmployeeDataset.unindexed(new OffHeapEmployeeStore.Builder()
+                .addAll(heap).build(Collections.emptyMap())), compiled), "offheap: " + filter);
+    }
+
+    private static List<String> ids(EmployeeDataset dataset, CompiledFilter filter) {
+        TreeSet<String> ids = new TreeSet<>();
+        dataset.forEachRowInPage(filter, EmployeeOrder.NATURAL, null, 0, Integer.MAX_VALUE,
+                Collections.singletonList(EmployeeField.EMPLOYEE_ID), row -> ids.add((String) row[0]));
+        assertEquals(ids.size(), dataset.count(filter), "count: " + filter);
+        return new ArrayList<>(ids);
+    }
+}
@@ -0,0 +1,171 @@
+package com.dreamsecurity.sapmock;
+
+import com.dreamsecurity.sapmock.filter.ComparisonOperator;
+import com.dreamsecurity.sapmock.filter.CompiledFilter;
+import com.dreamsecurity.sapmock.filter.EmployeeField;
+import com.dreamsecurity.sapmock.filter.FilterExpression;
+import com.dreamsecurity.sapmock.filter.FilterParser;
+import com.dreamsecurity.sapmock.filter.FilterSyntaxException;
+import com.dreamsecurity.sapmock.model.Employee;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * $filter 문법(FilterParser)과 메모리 평가(FilterExpression) 규칙.
+ */
+class FilterParserTest {
+
+    @Test
+    void andBindsTighterThanOr() {
+        FilterExpression expression = FilterParser.parse("gender eq 'F' or gender eq 'M' and department eq '1001'");
+        assertEquals("(gender eq 'F' or (gender eq 'M' and department eq '1001'))", expression.toString());
+    }
+
+    @Test
+    void parenthesesOverridePrecedence() {
+        FilterExpression expression = FilterParser.parse("(gender eq 'F' or gender eq 'M') and department eq '1001'");
+        assertEquals("((gender eq 'F' or gender eq 'M') and department eq '1001')", expression.toString());
+    }
+
+    @Test
+    void notAppliesToNextUnaryOnly() {
+        FilterExpression expression = FilterParser.parse("not gender eq 'F' and department eq '1001'");
+        assertEquals("(not gender eq 'F' and department eq '1001')", expression.toString());
+
+        FilterExpression nested = FilterParser.parse("NOT not (gender eq 'F')");
+        assertInstanceOf(FilterExpression.Not.class, nested);
+        assertInstanceOf(FilterExpression.Not.class, ((FilterExpression.Not) nested).operand());
+    }
+
+    @Test
+    void keywordsAndOperatorsAreCaseInsensitive() {
+        assertEquals("(gender eq 'F' or department ne '1001')",
+                FilterParser.parse("gender EQ 'F' OR department Ne '1001'").toString());
+    }
+
+    @Test
+    void nullLiteralOnlyWithEqAndNe() {
+        FilterExpression.Comparison isNull = comparison("terminationDate eq null");
+        assertNull(isNull.operand());
+        assertTrue(isNull.matchesValue(null));
+        assertFalse(isNull.matchesValue(LocalDate.of(2020, 1, 1)));
+
+        FilterExpression.Comparison notNull = comparison("terminationDate ne NULL");
+        assertFalse(notNull.matchesValue(null));
+        assertTrue(notNull.matchesValue(LocalDate.of(2020, 1, 1)));
+
+        assertThrows(FilterSyntaxException.class, () -> FilterParser.parse("terminationDate gt null"));
+    }
+
+    @Test
+    void nullValueOnlySatisfiesNe() {
+        assertFalse(comparison("middleName eq 'Lee'").matchesValue(null));
+        assertTrue(comparison("middleName ne 'Lee'").matchesValue(null));
+        assertFalse(comparison("terminationDate gt 2020-01-01").matchesValue(null));
+        assertFalse(comparison("terminationDate le 2020-01-01").matchesValue(null));
+        assertFalse(comparison("department lt 2000").matchesValue(null));
+
+        Employee employee = new Employee();
+        assertTrue(FilterParser.parse("not (terminationDate gt 2020-01-01)").test(employee));
+        assertTrue(FilterParser.parse("not (middleName eq 'Lee')").test(employee));
+    }
+
+    @Test
+    void dateLiteralsAcceptPlainAndDatetimeForms() {
+        FilterExpression.Comparison plain = comparison("hireDate ge 2020-01-15");
+        assertEquals(LocalDate.of(2020, 1, 15), plain.operand());
+
+        FilterExpression.Comparison datetime = comparison("hireDate ge datetime'2020-01-15T09:30:00'");
+        assertEquals(LocalDate.of(2020, 1, 15), datetime.operand());
+        assertTrue(datetime.matchesValue(LocalDate.of(2020, 1, 15)));
+        assertFalse(datetime.matchesValue(LocalDate.of(2020, 1, 14)));
+
+        assertThrows(FilterSyntaxException.class, () -> FilterParser.parse("hireDate ge '2020/01/15'"));
+    }
+
+    @Test
+    void codeRangeComparesNumerically() {
+        FilterExpression.Comparison range = comparison("department lt 200");
+        assertEquals(ComparisonOperator.LT, range.operator());
+        assertEquals(200L, range.operand());
+        // 문자열로 비교하면 "1001" < "200" 이지만 숫자로 비교한다
+        assertFalse(range.matchesValue("1001"));
+        assertTrue(range.matchesValue("199"));
+        assertFalse(range.matchesValue("N/A"));
+
+        assertThrows(FilterSyntaxException.class, () -> FilterParser.parse("department gt 'abc'"));
+    }
+
+    @Test
+    void codeEqualityIsExact() {
+        FilterExpression.Comparison equality = comparison("department eq '01001'");
+        assertEquals("01001", equality.operand());
+        assertTrue(equality.matchesValue("01001"));
+        assertFalse(equality.matchesValue("1001"));
+    }
+
+    @Test
+    void textEqualityIgnoresCase() {
+        FilterExpression.Comparison eq = comparison("firstName eq 'alice'");
+        assertTrue(eq.matchesValue("ALICE"));
+        assertTrue(eq.matchesValue("Alice"));
+        assertFalse(eq.matchesValue("Alicia"));
+
+        FilterExpression.Comparison ne = comparison("firstName ne 'ALICE'");
+        assertFalse(ne.matchesValue("alice"));
+        assertTrue(ne.matchesValue("bob"));
+
+        assertThrows(FilterSyntaxException.class, () -> FilterParser.parse("firstName gt 'A'"));
+    }
+
+    @Test
+    void quotedLiteralsUnescapeDoubledQuotes() {
+        FilterExpression.Comparison quoted = comparison("lastName eq 'O''Brien'");
+        assertEquals("O'Brien", quoted.operand());
+    }
+
+    @Test
+    void unquotedLiteralsAreAccepted() {
+        FilterExpression.Comparison unquoted = comparison("gender eq M");
+        assertEquals(EmployeeField.GENDER, unquoted.field());
+        assertEquals("M", unquoted.operand());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "unknownField eq 'x'",
+            "gender like 'F'",
+            "gender eq",
+            "gender eq 'F' gender eq 'M'",
+            "(gender eq 'F'",
+            "gender eq 'F')",
+            "lastName eq 'unterminated",
+            "gender eq 'F' and"
+    })
+    void malformedFiltersAreRejected(String filter) {
+        assertThrows(FilterSyntaxException.class, () -> FilterParser.parse(filter));
+    }
+
+    @Test
+    void blankFilterMatchesEverything() {
+        assertTrue(CompiledFilter.compile(null).isEmpty());
+        assertTrue(CompiledFilter.compile("  ").isEmpty());
+        assertTrue(CompiledFilter.compile("").test(new Employee()));
+    }
+
+    private static FilterExpression.Comparison comparison(String filter) {
+        FilterExpression expression = FilterParser.parse(filter);
+        assertInstanceOf(FilterExpression.Comparison.class, expression);
+        return (FilterExpression.Comparison) expression;
+    }
+}
@@ -0,0 +1,130 @@
+package com.dreamsecurity.sapmock;
+
+import com.dreamsecurity.sapmock.filter.EmployeeField;
+import com.dreamsecurity.sapmock.model.Employee;
+import com.dreamsecurity.sapmock.model.Privilege;
+import com.dreamsecurity.sapmock.model.Role;
+import com.dreamsecurity.sapmock.store.HeapEmployeeStore;
+import com.dreamsecurity.sapmock.store.OffHeapEmployeeStore;
+import com.dreamsecurity.sapmock.store.SnapshotFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 스냅샷 파일(SnapshotFile)을 쓰고 다시 읽으면 직원, 역할, 권한, 변경 기록 번호가 그대로인지,
+ * 잘리거나 다른 형식의 파일은 IOException 으로 거절하는지 확인한다.
+ */
+class SnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    private Map<String, Role> roles;
+    private OffHeapEmployeeStore store;
+
+    @BeforeEach
+    void setUp() {
+        roles = new LinkedHashMap<>();
+        roles.put("ADMIN", new Role("ADMIN", "관리자", "전체 권한", new ArrayList<>(Arrays.asList(
+                new Privilege("S_USER_GRP", "ACTVT=01", "사용자 그룹 생성"),
+                new Privilege("S_TCODE", "TCD=SM30", null)))));
+        roles.put("USER", new Role("USER", "사용자", null, new ArrayList<>(Arrays.asList(
+                new Privilege("S_TCODE", "TCD=SU01", "사용자 조회")))));
+        List<Role> roleList = new ArrayList<>(roles.values());
+
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            Employee e = new Employee();
+            e.setEmployeeId(String.valueOf(10000 + i));
+            e.setFirstName(i % 2 == 0 ? "민수" : "Alice");
+            e.setMiddleName(i % 3 == 0 ? null : "Lee");
+            e.setHireDate(LocalDate.of(2000, 1, 1).plusDays(i));
+            e.setTerminationDate(i % 10 == 0 ? LocalDate.of(2021, 6, 30) : null);
+            e.setWorkEmail(String.format("e%05d@example.com", i));
+            e.setRoles(new HashSet<>(roleList.subList(0, i % (roleList.size() + 1))));
+            employees.add(e);
+        }
+        store = new OffHeapEmployeeStore.Builder().addAll(new HeapEmployeeStore(employees)).build(roles);
+    }
+
+    @Test
+    void roundTripKeepsEmployeesRolesAndSequence() throws IOException {
+        Path path = directory.resolve("employees.snapshot");
+        long written = SnapshotFile.write(path, store, roles.values(), 42L);
+        assertEquals(Files.size(path), written);
+
+        SnapshotFile file = SnapshotFile.read(path);
+        assertEquals(42L, file.sequence());
+        assertEquals(describe(new ArrayList<>(roles.values())), describe(file.roles()));
+
+        OffHeapEmployeeStore loaded = file.store();
+        assertEquals(store.size(), loaded.size());
+        for (int ordinal = 0; ordinal < store.size(); ordinal++) {
+            for (EmployeeField field : EmployeeField.values()) {
+                assertEquals(store.value(ordinal, field), loaded.value(ordinal, field), field + " @" + ordinal);
+            }
+            assertEquals(describe(new ArrayList<>(store.roles(ordinal))), describe(new ArrayList<>(loaded.roles(ordinal))));
+        }
+        assertEquals(store.ordinalOf("12345"), loaded.ordinalOf("12345"));
+    }
+
+    @Test
+    void truncatedFileIsRejected() throws IOException {
+        Path path = directory.resolve("employees.snapshot");
+        SnapshotFile.write(path, store, roles.values(), 1L);
+        byte[] bytes = Files.readAllBytes(path);
+        Path truncated = directory.resolve("truncated.snapshot");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 100));
+
+        assertThrows(IOException.class, () -> SnapshotFile.read(truncated));
+    }
+
+    @Test
+    void otherFilesAndFormatVersionsAreRejected() throws IOException {
+        Path path = directory.resolve("employees.snapshot");
+        SnapshotFile.write(path, store, roles.values(), 1L);
+        byte[] bytes = Files.readAllBytes(path);
+
+        Path wrongVersion = directory.resolve("version.snapshot");
+        byte[] versioned = bytes.clone();
+        versioned[11] = (byte) (SnapshotFile.FORMAT_VERSION + 1);
+        Files.write(wrongVersion, versioned);
+        assertThrows(IOException.class, () -> SnapshotFile.read(wrongVersion));
+
+        Path notSnapshot = directory.resolve("text.snapshot");
+        Files.write(notSnapshot, "not a snapshot file".getBytes());
+        assertThrows(IOException.class, () -> SnapshotFile.read(notSnapshot));
+
+        assertThrows(IOException.class, () -> SnapshotFile.read(directory.resolve("missing.snapshot")));
+    }
+
+    /** 역할 ID, 이름, 설명과 권한 목록을 비교할 수 있는 문자열로 (역할 ID 순) */
+    private static Set<String> describe(List<Role> roles) {
+        Set<String> described = new TreeSet<>();
+        for (Role role : roles) {
+            described.add(role.getRoleId() + "|" + role.getRoleName() + "|" + role.getDescription() + "|"
+                    + role.getPrivileges().stream()
+                    .map(p -> p.getPrivilegeId() + ":" + p.getPrivilegeName() + ":" + p.getDescription())
+                    .collect(Collectors.joining(",")));
+        }
+        return described;
+    }
+}
@@ -0,0 +1,45 @@
+package com.dreamsecurity.sapmock.benchmark;
+
+import com.dreamsecurity.sapmock.repository.EmployeeRepository;
+import com.dreamsecurity.sapmock.service.EmployeeGenerationService;
+import com.dreamsecurity.sapmock.service.GenerationJob;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 직원 대량 생성(생성 + TRUNCATE + JDBC 배치 insert) 처리량 측정.
+ * 기본 빌드에서는 제외되며 mvn test -Pbenchmark 로 실행한다. 개발용 DB(./data) 대신 target 아래 별도 파일 DB 를 쓴다.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/benchmark/mockdb",
+        "spring.jpa.show-sql=false",
+        "sap.gen.count=0",
+        "sap.store.engine=jpa"
+})
+class EmployeeBulkLoadBenchmark {
+
+    @Autowired
+    private EmployeeGenerationService generationService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @ParameterizedTest
+    @ValueSource(ints = {100_000, 1_000_000})
+    void generateEmployees(int count) {
+        GenerationJob job = new GenerationJob("benchmark-" + count, count, generationService.defaultSeed());
+
+        long start = System.nanoTime();
+        generationService.generateEmployees(job);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        assertEquals(count, employeeRepository.count());
+        System.out.printf("[benchmark] 직원 %,d명: %.2fs, %,.0f rows/s%n", count, seconds, count / seconds);
+    }
+}